@@ -0,0 +1,67 @@
+package com.brokerage.benchmark;
+
+import com.brokerage.BrokerageApiApplication;
+import com.brokerage.dto.CreateOrderRequest;
+import com.brokerage.entity.Asset;
+import com.brokerage.entity.Customer;
+import com.brokerage.entity.Side;
+import com.brokerage.repository.AssetRepository;
+import com.brokerage.repository.CustomerRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+
+/**
+ * Boots the application once per trial against its embedded H2 database and funds a dedicated trader
+ * whose resting bids never cross the book.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+    static final String ASSET_NAME = "JMH";
+
+    ConfigurableApplicationContext context;
+    Customer trader;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(BrokerageApiApplication.class)
+                .properties("server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.brokerage=WARN",
+                        "logging.level.org.springframework.security=WARN")
+                .run();
+
+        Customer customer = new Customer();
+        customer.setUsername("jmh-trader");
+        customer.setPassword("jmh");
+        customer.setRole("CUSTOMER");
+        trader = context.getBean(CustomerRepository.class).save(customer);
+
+        context.getBean(AssetRepository.class).save(Asset.builder()
+                .customer(trader)
+                .assetName("TRY")
+                .size(new BigDecimal("1000000000000"))
+                .usableSize(new BigDecimal("1000000000000"))
+                .build());
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    CreateOrderRequest restingBid() {
+        return new CreateOrderRequest(trader.getId(), ASSET_NAME, Side.BUY, BigDecimal.ONE, new BigDecimal("0.01"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.brokerage.benchmark;
+
+import com.brokerage.ledger.BalanceLedger;
+import com.brokerage.money.Amount;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-order balance arithmetic of a BUY reservation and its settlement: on BigDecimal as the entities
+ * hold it, on the {@link Amount} the service layer uses (with and without converting from the entities'
+ * BigDecimals first, as the services do), and on the ledger's raw scaled longs. Run with
+ * {@code -PjmhProfilers=gc} to compare allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BalanceArithmeticBenchmark {
+    private BigDecimal size = new BigDecimal("10");
+    private BigDecimal price = new BigDecimal("150.50");
+    private BigDecimal fillPrice = new BigDecimal("149.75");
+    private BigDecimal usableSize = new BigDecimal("100000.00");
+    private BigDecimal totalSize = new BigDecimal("100000.00");
+
+    private long sizeUnits = BalanceLedger.toUnits(size);
+    private long priceUnits = BalanceLedger.toUnits(price);
+    private long fillPriceUnits = BalanceLedger.toUnits(fillPrice);
+    private long usableUnits = BalanceLedger.toUnits(usableSize);
+    private long totalUnits = BalanceLedger.toUnits(totalSize);
+
+    private Amount sizeAmount = Amount.of(size);
+    private Amount priceAmount = Amount.of(price);
+    private Amount fillPriceAmount = Amount.of(fillPrice);
+    private Amount usableAmount = Amount.of(usableSize);
+    private Amount totalAmount = Amount.of(totalSize);
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal reserved = size.multiply(price);
+        if (usableSize.compareTo(reserved) < 0) {
+            throw new IllegalStateException();
+        }
+        BigDecimal notional = size.multiply(fillPrice);
+        BigDecimal usable = usableSize.subtract(reserved).add(reserved.subtract(notional));
+        return totalSize.subtract(notional).add(usable);
+    }
+
+    @Benchmark
+    public Amount amount() {
+        Amount reserved = sizeAmount.multiply(priceAmount);
+        if (usableAmount.compareTo(reserved) < 0) {
+            throw new IllegalStateException();
+        }
+        Amount notional = sizeAmount.multiply(fillPriceAmount);
+        Amount usable = usableAmount.subtract(reserved).add(reserved.subtract(notional));
+        return totalAmount.subtract(notional).add(usable);
+    }
+
+    @Benchmark
+    public Amount amountFromBigDecimal() {
+        Amount sizeAmount = Amount.of(size);
+        Amount reserved = sizeAmount.multiply(Amount.of(price));
+        Amount usableAmount = Amount.of(usableSize);
+        if (usableAmount.compareTo(reserved) < 0) {
+            throw new IllegalStateException();
+        }
+        Amount notional = sizeAmount.multiply(Amount.of(fillPrice));
+        Amount usable = usableAmount.subtract(reserved).add(reserved.subtract(notional));
+        return Amount.of(totalSize).subtract(notional).add(usable);
+    }
+
+    @Benchmark
+    public long scaledLong() {
+        long reserved = Math.multiplyExact(sizeUnits, priceUnits) / 100;
+        if (usableUnits < reserved) {
+            throw new IllegalStateException();
+        }
+        long notional = Math.multiplyExact(sizeUnits, fillPriceUnits) / 100;
+        long usable = usableUnits - reserved + (reserved - notional);
+        return totalUnits - notional + usable;
+    }
+}
@@ -0,0 +1,61 @@
+package com.brokerage.benchmark;
+
+import com.brokerage.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code authenticate} is the filter path and, like {@code validateToken}, hits the verified-token cache after
+ * the first call. {@code verifySignature} parses and verifies the token with the application's key on every call,
+ * which is what each request costs on a cache miss.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenProviderBenchmark {
+    private JwtTokenProvider tokenProvider;
+    private JwtParser jwtParser;
+    private String token;
+
+    @Setup
+    public void setUp(ApplicationState app) {
+        tokenProvider = app.getBean(JwtTokenProvider.class);
+        token = tokenProvider.generateToken(app.trader);
+        String secret = app.context.getEnvironment().getRequiredProperty("jwt.secret");
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes()))
+                .build();
+    }
+
+    @Benchmark
+    public String generateToken(ApplicationState app) {
+        return tokenProvider.generateToken(app.trader);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Authentication authenticate() {
+        return tokenProvider.authenticate(token);
+    }
+
+    @Benchmark
+    public Claims verifySignature() {
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+}
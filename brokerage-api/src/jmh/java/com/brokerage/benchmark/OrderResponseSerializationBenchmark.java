@@ -0,0 +1,64 @@
+package com.brokerage.benchmark;
+
+import com.brokerage.dto.OrderResponse;
+import com.brokerage.entity.Side;
+import com.brokerage.entity.Status;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderResponseSerializationBenchmark {
+    @Param({"10", "100", "1000"})
+    private int orderCount;
+
+    private ObjectWriter writer;
+    private List<OrderResponse> orders;
+
+    @Setup
+    public void setUp() {
+        writer = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writer();
+
+        LocalDateTime createDate = LocalDateTime.of(2024, 1, 1, 9, 30);
+        orders = new ArrayList<>(orderCount);
+        for (int i = 0; i < orderCount; i++) {
+            orders.add(OrderResponse.builder()
+                    .id((long) i)
+                    .customerId(2L)
+                    .assetName("AAPL")
+                    .orderSide(i % 2 == 0 ? Side.BUY : Side.SELL)
+                    .size(new BigDecimal("10"))
+                    .price(new BigDecimal("150.50"))
+                    .filledSize(BigDecimal.ZERO)
+                    .status(Status.PENDING)
+                    .createDate(createDate.plusSeconds(i))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(orders);
+    }
+}
@@ -0,0 +1,50 @@
+package com.brokerage.benchmark;
+
+import com.brokerage.dto.MatchOrdersResponse;
+import com.brokerage.dto.OrderResponse;
+import com.brokerage.service.OrderIntakeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order commands through the same sequencer path the controllers use. Cancel and match need a pending
+ * order, so they are measured together with the create that produces it; subtract {@code createOrder}
+ * to isolate them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderServiceBenchmark {
+    private OrderIntakeService orderIntakeService;
+
+    @Setup
+    public void setUp(ApplicationState app) {
+        orderIntakeService = app.getBean(OrderIntakeService.class);
+    }
+
+    @Benchmark
+    public OrderResponse createOrder(ApplicationState app) {
+        return orderIntakeService.createOrder(app.restingBid());
+    }
+
+    @Benchmark
+    public OrderResponse createAndDeleteOrder(ApplicationState app) {
+        OrderResponse order = orderIntakeService.createOrder(app.restingBid());
+        orderIntakeService.deleteOrder(order.getId(), order.getCustomerId());
+        return order;
+    }
+
+    @Benchmark
+    public MatchOrdersResponse createAndMatchOrder(ApplicationState app) {
+        OrderResponse order = orderIntakeService.createOrder(app.restingBid());
+        return orderIntakeService.matchOrders(List.of(order.getId()));
+    }
+}
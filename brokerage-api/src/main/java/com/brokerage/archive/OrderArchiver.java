@@ -0,0 +1,121 @@
+package com.brokerage.archive;
+
+import com.brokerage.dto.OrderCursor;
+import com.brokerage.entity.Status;
+import com.brokerage.repository.OrderArchiveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves MATCHED and CANCELED orders older than {@code orders.archive.min-age-days} from {@code orders} to
+ * {@code orders_archive} every {@code orders.archive.interval-ms}, in transactions of at most
+ * {@code orders.archive.batch-size} orders, so that the hot table only holds pending and recent orders. It tracks
+ * the newest creation date in the archive, which lets order listing skip the archive for date ranges after it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderArchiver {
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${orders.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${orders.archive.min-age-days:30}")
+    private int minAgeDays;
+
+    @Value("${orders.archive.batch-size:1000}")
+    private int batchSize;
+
+    // Held while the newest date is loaded from the archive, so a ReentrantLock to keep virtual threads unpinned
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile LocalDateTime newestArchived;
+    private volatile boolean loaded;
+
+    @Scheduled(fixedDelayString = "${orders.archive.interval-ms:3600000}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archive(LocalDateTime.now().minusDays(minAgeDays));
+        }
+    }
+
+    /**
+     * Archives every terminal order created before {@code cutoff} and returns the number of orders moved.
+     */
+    public int archive(LocalDateTime cutoff) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int archived = 0;
+        try {
+            int moved;
+            do {
+                moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+                archived += moved;
+            } while (moved == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Order archiving failed after {} orders, will retry", archived, e);
+        }
+        if (archived > 0) {
+            log.info("Archived {} orders created before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    /**
+     * Whether the archive may hold orders in {@code status} (any status when {@code null}) created at or after
+     * {@code startDate} (at any time when {@code null}).
+     */
+    public boolean mayContain(LocalDateTime startDate, Status status) {
+        if (status == Status.PENDING) {
+            return false;
+        }
+        LocalDateTime newest = newestArchived();
+        return newest != null && (startDate == null || !startDate.isAfter(newest));
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<OrderCursor> orders = orderArchiveRepository.findArchivable(cutoff, batchSize);
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        // Raised before the orders leave the hot table, so that listing never skips the archive while they are
+        // already there
+        orders.stream().map(OrderCursor::createDate).max(LocalDateTime::compareTo).ifPresent(this::raiseNewest);
+        return orderArchiveRepository.archive(orders.stream().map(OrderCursor::id).toList());
+    }
+
+    private LocalDateTime newestArchived() {
+        if (!loaded) {
+            lock.lock();
+            try {
+                if (!loaded) {
+                    orderArchiveRepository.findNewestCreateDate().ifPresent(this::raiseNewest);
+                    loaded = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return newestArchived;
+    }
+
+    private void raiseNewest(LocalDateTime createDate) {
+        lock.lock();
+        try {
+            if (newestArchived == null || createDate.isAfter(newestArchived)) {
+                newestArchived = createDate;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,38 +1,75 @@
 package com.brokerage.controller;
 
+import com.brokerage.dto.CountMode;
 import com.brokerage.dto.MatchOrderRequest;
-import com.brokerage.service.OrderService;
+import com.brokerage.dto.MatchOrdersResponse;
+import com.brokerage.dto.OrderSearchCriteria;
+import com.brokerage.dto.OrderSearchResponse;
+import com.brokerage.entity.Side;
+import com.brokerage.entity.Status;
+import com.brokerage.service.OrderIntakeService;
+import com.brokerage.service.OrderSearchService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
 @RestController
 @RequestMapping("/api/admin")
 @RequiredArgsConstructor
 @Tag(name = "Admin", description = "Admin management APIs")
 @SecurityRequirement(name = "bearerAuth")
 public class AdminController {
-    private final OrderService orderService;
+    private final OrderIntakeService orderIntakeService;
+    private final OrderSearchService orderSearchService;
 
     @PostMapping("/match-orders")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Match pending orders", description = "Match pending orders and update asset balances (Admin only)")
+    @Operation(summary = "Match pending orders", description = "Match pending orders and update asset balances in one batch, reporting the outcome per order (Admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed; see per-order results"),
+            @ApiResponse(responseCode = "400", description = "Invalid request"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required")
+    })
+    public ResponseEntity<MatchOrdersResponse> matchOrders(@Valid @RequestBody MatchOrderRequest request) {
+        MatchOrdersResponse response = orderIntakeService.matchOrders(request.getOrderIds());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/orders")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Search orders", description = "Search orders of all customers ordered by creation date using keyset pagination; pass nextCursor from the previous page to continue (Admin only)")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Orders matched successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid request or order not in PENDING status"),
+            @ApiResponse(responseCode = "200", description = "Orders retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or filter range"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
-            @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required"),
-            @ApiResponse(responseCode = "404", description = "Order not found")
+            @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required")
     })
-    public ResponseEntity<Void> matchOrders(@Valid @RequestBody MatchOrderRequest request) {
-        orderService.matchOrders(request.getOrderIds());
-        return ResponseEntity.ok().build();
+    public ResponseEntity<OrderSearchResponse> searchOrders(
+            @Parameter(description = "Filter by asset name") @RequestParam(required = false) String assetName,
+            @Parameter(description = "Filter by order side") @RequestParam(required = false) Side orderSide,
+            @Parameter(description = "Filter by order status") @RequestParam(required = false) Status status,
+            @Parameter(description = "Minimum price (inclusive)") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price (inclusive)") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Start date in ISO format (inclusive)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @Parameter(description = "End date in ISO format (inclusive)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @Parameter(description = "Cursor returned as nextCursor by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-1000)") @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "Total count to return: NONE, ESTIMATE (capped) or EXACT") @RequestParam(defaultValue = "NONE") CountMode count) {
+        OrderSearchCriteria criteria = new OrderSearchCriteria(assetName, orderSide, status, minPrice, maxPrice,
+                startDate, endDate);
+        return ResponseEntity.ok(orderSearchService.search(criteria, cursor, limit, count));
     }
-}
\ No newline at end of file
+}
@@ -33,8 +33,9 @@ public class AssetController {
     })
     public ResponseEntity<List<AssetResponse>> listAssets(
             @Parameter(description = "Customer ID") @RequestParam Long customerId,
-            @Parameter(description = "Filter by asset name (partial match)") @RequestParam(required = false) String assetName) {
-        List<AssetResponse> assets = assetService.listAssets(customerId, assetName);
+            @Parameter(description = "Filter by asset name (partial match, case-insensitive)") @RequestParam(required = false) String assetName,
+            @Parameter(description = "Match assetName as a prefix instead, e.g. for autocomplete") @RequestParam(defaultValue = "false") boolean prefix) {
+        List<AssetResponse> assets = assetService.listAssets(customerId, assetName, prefix);
         return ResponseEntity.ok(assets);
     }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.brokerage.controller;
+
+import com.brokerage.notification.CustomerEventPublisher;
+import com.brokerage.security.CustomerAccess;
+import com.brokerage.service.OrderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+@Tag(name = "Events", description = "Order and balance change notifications")
+@SecurityRequirement(name = "bearerAuth")
+public class EventController {
+    private final CustomerEventPublisher customerEventPublisher;
+    private final OrderService orderService;
+    private final CustomerAccess customerAccess;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    @Operation(summary = "Subscribe to customer events", description = "Server-Sent Events stream of order status changes (event 'order') and asset balance deltas (event 'balance')")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - events of another customer"),
+            @ApiResponse(responseCode = "404", description = "Customer not found")
+    })
+    public SseEmitter subscribe(@Parameter(description = "Customer ID") @RequestParam Long customerId) {
+        customerAccess.checkAccess(customerId);
+        orderService.ensureCustomerExists(customerId);
+        return customerEventPublisher.subscribe(customerId);
+    }
+}
@@ -0,0 +1,36 @@
+package com.brokerage.controller;
+
+import com.brokerage.dto.MarketDepthResponse;
+import com.brokerage.service.MarketDataService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/market")
+@RequiredArgsConstructor
+@Tag(name = "Market Data", description = "Order book market data APIs")
+@SecurityRequirement(name = "bearerAuth")
+public class MarketController {
+    private final MarketDataService marketDataService;
+
+    @GetMapping("/{assetName}/depth")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    @Operation(summary = "Get market depth", description = "Aggregated PENDING order size per price level, best prices first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Depth retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<MarketDepthResponse> getDepth(
+            @Parameter(description = "Asset name") @PathVariable String assetName,
+            @Parameter(description = "Number of price levels per side") @RequestParam(defaultValue = "10") int levels) {
+        return ResponseEntity.ok(marketDataService.getDepth(assetName, levels));
+    }
+}
@@ -1,9 +1,17 @@
 package com.brokerage.controller;
 
+import com.brokerage.dto.AsyncOrderResponse;
+import com.brokerage.dto.BatchOrderRequest;
+import com.brokerage.dto.BatchOrderResponse;
 import com.brokerage.dto.CreateOrderRequest;
+import com.brokerage.dto.OrderPageResponse;
 import com.brokerage.dto.OrderResponse;
 import com.brokerage.entity.Status;
+import com.brokerage.security.CustomerAccess;
+import com.brokerage.service.OrderIntakeService;
 import com.brokerage.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,10 +24,15 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -29,7 +42,12 @@ import java.util.List;
 @Tag(name = "Orders", description = "Order management APIs")
 @SecurityRequirement(name = "bearerAuth")
 public class OrderController {
+    private static final String NDJSON = "application/x-ndjson";
+
     private final OrderService orderService;
+    private final OrderIntakeService orderIntakeService;
+    private final ObjectMapper objectMapper;
+    private final CustomerAccess customerAccess;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
@@ -39,13 +57,59 @@ public class OrderController {
                     content = @Content(schema = @Schema(implementation = OrderResponse.class))),
             @ApiResponse(responseCode = "400", description = "Invalid request or insufficient balance"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
-            @ApiResponse(responseCode = "404", description = "Customer not found")
+            @ApiResponse(responseCode = "404", description = "Customer not found"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key reused for a different request")
     })
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest request) {
-        OrderResponse response = orderService.createOrder(request);
+    public ResponseEntity<OrderResponse> createOrder(
+            @Valid @RequestBody CreateOrderRequest request,
+            @Parameter(description = "Client-chosen key; a retry with the same key returns the original order") @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        OrderResponse response = orderIntakeService.createOrder(request, idempotencyKey);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    @Operation(summary = "Create orders in bulk", description = "Create up to 1000 orders in one request; each order succeeds or fails on its own")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-order results"),
+            @ApiResponse(responseCode = "400", description = "Invalid request"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<BatchOrderResponse> createOrders(@Valid @RequestBody BatchOrderRequest request) {
+        BatchOrderResponse response = orderIntakeService.createOrders(request.getOrders());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/async")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    @Operation(summary = "Submit an order asynchronously", description = "Validate and queue a BUY or SELL order; it is persisted and matched in the next group commit")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Order queued",
+                    content = @Content(schema = @Schema(implementation = AsyncOrderResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "503", description = "Order queue is full")
+    })
+    public ResponseEntity<AsyncOrderResponse> submitOrder(@Valid @RequestBody CreateOrderRequest request) {
+        AsyncOrderResponse response = orderIntakeService.submitOrder(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/orders/async/" + response.getClientOrderId()))
+                .body(response);
+    }
+
+    @GetMapping("/async/{clientOrderId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    @Operation(summary = "Get async order status", description = "QUEUED until the group commit runs, then ACCEPTED with the order ID or REJECTED with the reason")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Status retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired client order ID")
+    })
+    public ResponseEntity<AsyncOrderResponse> getSubmission(
+            @Parameter(description = "Client order ID returned on submission") @PathVariable String clientOrderId) {
+        return ResponseEntity.ok(orderIntakeService.getSubmission(clientOrderId, customerAccess.scopeCustomerId()));
+    }
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
     @Operation(summary = "List orders", description = "List orders for a customer within a date range")
@@ -63,6 +127,55 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    @Operation(summary = "List orders page", description = "List orders ordered by creation date using keyset pagination; pass nextCursor from the previous page to continue")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Orders retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "404", description = "Customer not found")
+    })
+    public ResponseEntity<OrderPageResponse> listOrdersPage(
+            @Parameter(description = "Customer ID") @RequestParam Long customerId,
+            @Parameter(description = "Start date in ISO format") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @Parameter(description = "End date in ISO format") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @Parameter(description = "Filter by order status") @RequestParam(required = false) Status status,
+            @Parameter(description = "Cursor returned as nextCursor by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-1000)") @RequestParam(defaultValue = "100") int limit) {
+        OrderPageResponse page = orderService.listOrdersPage(customerId, startDate, endDate, status, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(produces = NDJSON)
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    @Operation(summary = "Stream orders", description = "Stream orders as newline-delimited JSON while they are read from the database (Accept: application/x-ndjson)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Orders streamed successfully"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "404", description = "Customer not found")
+    })
+    public ResponseEntity<StreamingResponseBody> streamOrders(
+            @Parameter(description = "Customer ID") @RequestParam Long customerId,
+            @Parameter(description = "Start date in ISO format") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @Parameter(description = "End date in ISO format") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @Parameter(description = "Filter by order status") @RequestParam(required = false) Status status) {
+        orderService.ensureCustomerExists(customerId);
+
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(outputStream)) {
+                orderService.streamOrders(customerId, startDate, endDate, status, order -> {
+                    try {
+                        writer.write(order);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
     @DeleteMapping("/{orderId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
     @Operation(summary = "Cancel an order", description = "Cancel a pending order and return reserved amounts")
@@ -70,12 +183,14 @@ public class OrderController {
             @ApiResponse(responseCode = "204", description = "Order cancelled successfully"),
             @ApiResponse(responseCode = "400", description = "Order is not in PENDING status"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
-            @ApiResponse(responseCode = "404", description = "Order or customer not found")
+            @ApiResponse(responseCode = "404", description = "Order or customer not found"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key reused for a different request")
     })
     public ResponseEntity<Void> deleteOrder(
             @Parameter(description = "Order ID to cancel") @PathVariable Long orderId,
-            @Parameter(description = "Customer ID") @RequestParam Long customerId) {
-        orderService.deleteOrder(orderId, customerId);
+            @Parameter(description = "Customer ID") @RequestParam Long customerId,
+            @Parameter(description = "Client-chosen key; a retry with the same key is acknowledged without cancelling again") @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        orderIntakeService.deleteOrder(orderId, customerId, idempotencyKey);
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.brokerage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AsyncOrderResponse {
+    private String clientOrderId;
+    private SubmissionStatus status;
+    private Long orderId;
+    private String message;
+
+    public enum SubmissionStatus {
+        QUEUED, ACCEPTED, REJECTED
+    }
+
+    public static AsyncOrderResponse queued(String clientOrderId) {
+        return new AsyncOrderResponse(clientOrderId, SubmissionStatus.QUEUED, null, null);
+    }
+
+    public static AsyncOrderResponse accepted(String clientOrderId, Long orderId) {
+        return new AsyncOrderResponse(clientOrderId, SubmissionStatus.ACCEPTED, orderId, null);
+    }
+
+    public static AsyncOrderResponse rejected(String clientOrderId, String message) {
+        return new AsyncOrderResponse(clientOrderId, SubmissionStatus.REJECTED, null, message);
+    }
+}
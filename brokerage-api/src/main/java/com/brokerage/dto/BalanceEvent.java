@@ -0,0 +1,18 @@
+package com.brokerage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceEvent {
+    private String assetName;
+    private BigDecimal sizeChange;
+    private BigDecimal usableSizeChange;
+}
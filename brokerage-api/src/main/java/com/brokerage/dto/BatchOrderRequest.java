@@ -0,0 +1,22 @@
+package com.brokerage.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request to create several orders at once")
+public class BatchOrderRequest {
+    @NotEmpty(message = "Orders are required")
+    @Size(max = 1000, message = "At most 1000 orders per batch")
+    @Valid
+    private List<CreateOrderRequest> orders;
+}
@@ -0,0 +1,18 @@
+package com.brokerage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchOrderResponse {
+    private int createdCount;
+    private int failedCount;
+    private List<BatchOrderResult> results;
+}
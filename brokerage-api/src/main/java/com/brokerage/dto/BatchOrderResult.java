@@ -0,0 +1,25 @@
+package com.brokerage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchOrderResult {
+    private int index;
+    private boolean created;
+    private OrderResponse order;
+    private String message;
+
+    public static BatchOrderResult created(OrderResponse order) {
+        return new BatchOrderResult(0, true, order, null);
+    }
+
+    public static BatchOrderResult failed(String message) {
+        return new BatchOrderResult(0, false, null, message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.brokerage.dto;
+
+public enum CountMode {
+    NONE,
+    ESTIMATE,
+    EXACT
+}
@@ -0,0 +1,21 @@
+package com.brokerage.dto;
+
+import com.brokerage.matching.PriceLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MarketDepthResponse {
+    private String assetName;
+    private PriceLevel bestBid;
+    private PriceLevel bestAsk;
+    private List<PriceLevel> bids;
+    private List<PriceLevel> asks;
+}
@@ -0,0 +1,24 @@
+package com.brokerage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MatchOrderResult {
+    private Long orderId;
+    private boolean matched;
+    private String message;
+
+    public static MatchOrderResult matched(Long orderId) {
+        return new MatchOrderResult(orderId, true, null);
+    }
+
+    public static MatchOrderResult failed(Long orderId, String message) {
+        return new MatchOrderResult(orderId, false, message);
+    }
+}
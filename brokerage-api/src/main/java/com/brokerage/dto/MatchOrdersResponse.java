@@ -0,0 +1,18 @@
+package com.brokerage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MatchOrdersResponse {
+    private int matchedCount;
+    private int failedCount;
+    private List<MatchOrderResult> results;
+}
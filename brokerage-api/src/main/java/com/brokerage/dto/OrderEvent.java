@@ -0,0 +1,23 @@
+package com.brokerage.dto;
+
+import com.brokerage.entity.Side;
+import com.brokerage.entity.Status;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderEvent {
+    private Long orderId;
+    private String assetName;
+    private Side orderSide;
+    private BigDecimal size;
+    private BigDecimal filledSize;
+    private Status status;
+}
@@ -21,6 +21,7 @@ public class OrderResponse {
     private Side orderSide;
     private BigDecimal size;
     private BigDecimal price;
+    private BigDecimal filledSize;
     private Status status;
     private LocalDateTime createDate;
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.brokerage.dto;
+
+import com.brokerage.entity.Side;
+import com.brokerage.entity.Status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Filters of an admin order search; {@code null} fields are not filtered on. Price and date bounds are inclusive.
+ */
+public record OrderSearchCriteria(String assetName, Side orderSide, Status status, BigDecimal minPrice,
+                                  BigDecimal maxPrice, LocalDateTime startDate, LocalDateTime endDate) {
+}
@@ -0,0 +1,19 @@
+package com.brokerage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSearchResponse {
+    private List<OrderResponse> orders;
+    private String nextCursor;
+    private Long totalCount;
+    private Boolean totalCountExact;
+}
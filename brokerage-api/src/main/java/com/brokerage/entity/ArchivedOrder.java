@@ -0,0 +1,56 @@
+package com.brokerage.entity;
+
+import com.brokerage.instrument.InstrumentConverter;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A MATCHED or CANCELED order moved out of {@code orders} by the order archiver. Archived orders never change
+ * and are only listed per customer or by the admin search in creation order, so the table has no foreign key and
+ * only the two indexes those need.
+ */
+@Entity
+@Table(name = "orders_archive",
+       indexes = {
+               @Index(name = "idx_orders_archive_customer_create_date", columnList = "customer_id, create_date, id"),
+               @Index(name = "idx_orders_archive_create_date", columnList = "create_date, id")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrder {
+    @Id
+    private Long id;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Convert(converter = InstrumentConverter.class)
+    @Column(name = "instrument_id", nullable = false)
+    private String assetName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "order_side", nullable = false)
+    private Side orderSide;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal size;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal price;
+
+    @Column(name = "filled_size", nullable = false, precision = 19, scale = 2)
+    private BigDecimal filledSize;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(name = "create_date", nullable = false)
+    private LocalDateTime createDate;
+}
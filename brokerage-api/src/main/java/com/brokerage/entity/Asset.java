@@ -1,5 +1,8 @@
 package com.brokerage.entity;
 
+import com.brokerage.instrument.InstrumentConverter;
+import com.brokerage.instrument.InstrumentHolder;
+import com.brokerage.instrument.InstrumentRegistrationListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -9,13 +12,14 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Entity
+@EntityListeners(InstrumentRegistrationListener.class)
 @Table(name = "assets", 
-       uniqueConstraints = @UniqueConstraint(columnNames = {"customer_id", "asset_name"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"customer_id", "instrument_id"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Asset {
+public class Asset implements InstrumentHolder {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -24,7 +28,8 @@ public class Asset {
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
 
-    @Column(name = "asset_name", nullable = false)
+    @Convert(converter = InstrumentConverter.class)
+    @Column(name = "instrument_id", nullable = false)
     private String assetName;
 
     @Column(nullable = false, precision = 19, scale = 2)
@@ -32,4 +37,7 @@ public class Asset {
 
     @Column(name = "usable_size", nullable = false, precision = 19, scale = 2)
     private BigDecimal usableSize;
+
+    @Version
+    private Long version;
 }
\ No newline at end of file
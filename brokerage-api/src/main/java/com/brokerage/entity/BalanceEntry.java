@@ -0,0 +1,52 @@
+package com.brokerage.entity;
+
+import com.brokerage.instrument.InstrumentConverter;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable change to a (customer, asset) balance, written when {@code balance.locking-strategy=entries}. A
+ * reservation moves an amount from available to reserved, so it only changes {@code usableSizeChange}; the
+ * reserved side is implied by {@code size - usableSize}. {@code checkpointId} is set once the entry has been
+ * folded into the asset row.
+ */
+@Entity
+@Table(name = "balance_entries",
+       indexes = {
+               @Index(name = "idx_balance_entries_balance", columnList = "customer_id, instrument_id, checkpoint_id"),
+               @Index(name = "idx_balance_entries_checkpoint", columnList = "checkpoint_id")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Convert(converter = InstrumentConverter.class)
+    @Column(name = "instrument_id", nullable = false)
+    private String assetName;
+
+    @Column(name = "size_change", nullable = false, precision = 19, scale = 2)
+    private BigDecimal sizeChange;
+
+    @Column(name = "usable_size_change", nullable = false, precision = 19, scale = 2)
+    private BigDecimal usableSizeChange;
+
+    @Column(name = "create_date", nullable = false)
+    private LocalDateTime createDate;
+
+    @Column(name = "checkpoint_id")
+    private Long checkpointId;
+}
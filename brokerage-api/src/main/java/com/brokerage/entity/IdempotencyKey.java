@@ -0,0 +1,37 @@
+package com.brokerage.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys",
+       indexes = @Index(name = "idx_idempotency_keys_create_date", columnList = "create_date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKey {
+    @Id
+    @Column(name = "idempotency_key", length = 300)
+    private String key;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Lob
+    @Column(name = "response_body", nullable = false)
+    private String responseBody;
+
+    @CreationTimestamp
+    @Column(name = "create_date", nullable = false)
+    private LocalDateTime createDate;
+}
@@ -0,0 +1,22 @@
+package com.brokerage.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "instruments")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Instrument {
+    public static final String SETTLEMENT_CURRENCY = "TRY";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(unique = true, nullable = false)
+    private String name;
+}
@@ -1,5 +1,10 @@
 package com.brokerage.entity;
 
+import com.brokerage.instrument.InstrumentConverter;
+import com.brokerage.instrument.InstrumentHolder;
+import com.brokerage.instrument.InstrumentRegistrationListener;
+import com.brokerage.journal.OrderJournalListener;
+import com.brokerage.money.Amount;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,21 +16,31 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "orders")
+@EntityListeners({InstrumentRegistrationListener.class, OrderJournalListener.class})
+@Table(name = "orders",
+       indexes = {
+               @Index(name = "idx_orders_customer_create_date", columnList = "customer_id, create_date, id"),
+               @Index(name = "idx_orders_instrument_status_create_date",
+                      columnList = "instrument_id, status, create_date, id"),
+               @Index(name = "idx_orders_status_create_date", columnList = "status, create_date, id"),
+               @Index(name = "idx_orders_create_date", columnList = "create_date, id")
+       })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Order {
+public class Order implements InstrumentHolder {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
 
-    @Column(name = "asset_name", nullable = false)
+    @Convert(converter = InstrumentConverter.class)
+    @Column(name = "instrument_id", nullable = false)
     private String assetName;
 
     @Enumerated(EnumType.STRING)
@@ -38,6 +53,10 @@ public class Order {
     @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal price;
 
+    @Builder.Default
+    @Column(name = "filled_size", nullable = false, precision = 19, scale = 2)
+    private BigDecimal filledSize = BigDecimal.ZERO;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private Status status;
@@ -45,4 +64,12 @@ public class Order {
     @CreationTimestamp
     @Column(name = "create_date", nullable = false)
     private LocalDateTime createDate;
+
+    public BigDecimal getRemainingSize() {
+        return size.subtract(filledSize);
+    }
+
+    public Amount getRemainingAmount() {
+        return Amount.of(size).subtract(Amount.of(filledSize));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.brokerage.exception;
+
+public class BalanceContentionException extends RuntimeException {
+    public BalanceContentionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,28 @@
+package com.brokerage.instrument;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores an instrument name as its {@link InstrumentRegistry} ID. Never registers a name, since it also converts
+ * query parameters: an unknown name becomes {@link InstrumentRegistry#UNKNOWN_ID}, which matches no row. Entities
+ * register their name before they are persisted, see {@link InstrumentRegistrationListener}.
+ */
+@Component
+@Converter
+@RequiredArgsConstructor
+public class InstrumentConverter implements AttributeConverter<String, Integer> {
+    private final InstrumentRegistry instrumentRegistry;
+
+    @Override
+    public Integer convertToDatabaseColumn(String name) {
+        return name == null ? null : instrumentRegistry.find(name).orElse(InstrumentRegistry.UNKNOWN_ID);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return id == null ? null : instrumentRegistry.nameOf(id);
+    }
+}
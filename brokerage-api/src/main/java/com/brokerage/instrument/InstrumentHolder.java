@@ -0,0 +1,8 @@
+package com.brokerage.instrument;
+
+/**
+ * An entity that stores an instrument name through {@link InstrumentConverter}.
+ */
+public interface InstrumentHolder {
+    String getAssetName();
+}
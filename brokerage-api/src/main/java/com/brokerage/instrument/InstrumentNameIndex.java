@@ -0,0 +1,106 @@
+package com.brokerage.instrument;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Case-insensitive lookup of instrument IDs by name substring or prefix. Every substring of up to three characters
+ * of every name is a key of a sorted posting list, so fragments of up to three characters are answered by a single
+ * lookup. Longer fragments intersect the lists of their trigrams and check the few remaining candidates. Prefixes
+ * are answered from a sorted map of the names. Writers must not call {@link #add} concurrently; readers may run at
+ * any time.
+ */
+final class InstrumentNameIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int[] NONE = new int[0];
+
+    private final Map<Integer, String> lowerCaseNames = new ConcurrentHashMap<>();
+    private final Map<String, int[]> grams = new ConcurrentHashMap<>();
+    private final NavigableMap<String, int[]> names = new ConcurrentSkipListMap<>();
+
+    void add(int id, String name) {
+        String lowerCaseName = name.toLowerCase(Locale.ROOT);
+        lowerCaseNames.put(id, lowerCaseName);
+        Set<String> nameGrams = new HashSet<>();
+        for (int length = 1; length <= GRAM_LENGTH; length++) {
+            for (int start = 0; start + length <= lowerCaseName.length(); start++) {
+                nameGrams.add(lowerCaseName.substring(start, start + length));
+            }
+        }
+        for (String gram : nameGrams) {
+            grams.put(gram, with(grams.getOrDefault(gram, NONE), id));
+        }
+        names.put(lowerCaseName, with(names.getOrDefault(lowerCaseName, NONE), id));
+    }
+
+    /**
+     * IDs of the names that contain {@code fragment}, in ascending order.
+     */
+    int[] containing(String fragment) {
+        String lowerCaseFragment = fragment.toLowerCase(Locale.ROOT);
+        if (lowerCaseFragment.isEmpty()) {
+            return lowerCaseNames.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        }
+        if (lowerCaseFragment.length() <= GRAM_LENGTH) {
+            return grams.getOrDefault(lowerCaseFragment, NONE).clone();
+        }
+
+        int[] candidates = null;
+        for (int start = 0; start + GRAM_LENGTH <= lowerCaseFragment.length(); start++) {
+            int[] posting = grams.getOrDefault(lowerCaseFragment.substring(start, start + GRAM_LENGTH), NONE);
+            candidates = candidates == null ? posting : intersect(candidates, posting);
+            if (candidates.length == 0) {
+                return NONE;
+            }
+        }
+        return Arrays.stream(candidates)
+                .filter(id -> lowerCaseNames.get(id).contains(lowerCaseFragment))
+                .toArray();
+    }
+
+    /**
+     * IDs of the names that start with {@code prefix}, in name order.
+     */
+    int[] startingWith(String prefix) {
+        String lowerCasePrefix = prefix.toLowerCase(Locale.ROOT);
+        return names.subMap(lowerCasePrefix, true, lowerCasePrefix + Character.MAX_VALUE, false).values().stream()
+                .flatMapToInt(Arrays::stream)
+                .toArray();
+    }
+
+    private static int[] with(int[] ids, int id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index >= 0) {
+            return ids;
+        }
+        int insertAt = -index - 1;
+        int[] result = new int[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, insertAt);
+        result[insertAt] = id;
+        System.arraycopy(ids, insertAt, result, insertAt + 1, ids.length - insertAt);
+        return result;
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        int[] result = new int[Math.min(left.length, right.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < left.length && j < right.length; ) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
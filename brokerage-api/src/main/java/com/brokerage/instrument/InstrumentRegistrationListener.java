@@ -0,0 +1,22 @@
+package com.brokerage.instrument;
+
+import jakarta.persistence.PrePersist;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers the instrument of a new entity in the transaction that persists it, before
+ * {@link InstrumentConverter} needs its ID.
+ */
+@Component
+@RequiredArgsConstructor
+public class InstrumentRegistrationListener {
+    private final InstrumentRegistry instrumentRegistry;
+
+    @PrePersist
+    public void onPersist(InstrumentHolder entity) {
+        if (entity.getAssetName() != null) {
+            instrumentRegistry.idOf(entity.getAssetName());
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.brokerage.instrument;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory dictionary of instrument names to the compact int IDs that order and asset rows store in place of
+ * the name. The instruments table is read once the schema exists, before any data is seeded, and names are indexed
+ * for substring and prefix lookups. Lookups never lock and never register. Write paths register an unknown name
+ * with {@link #idOf} inside their own transaction, on its connection; the name is only published to other threads
+ * once that transaction commits, so a rollback leaves neither a row nor a cached ID behind.
+ */
+@Component
+@RequiredArgsConstructor
+public class InstrumentRegistry implements SmartInitializingSingleton {
+    /**
+     * Stands in for an unknown name in queries; no row has it.
+     */
+    public static final int UNKNOWN_ID = -1;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final InstrumentNameIndex nameIndex = new InstrumentNameIndex();
+    // Held across the startup read, so a ReentrantLock rather than synchronized to keep virtual threads unpinned
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile String[] names = new String[16];
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        writeLock.lock();
+        try {
+            jdbcTemplate.query("SELECT id, name FROM instruments", (ResultSet rs) -> {
+                put(rs.getInt(1), rs.getString(2));
+            });
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the ID of {@code name}, registering it in the current transaction if it is unknown. Only for paths
+     * that are about to write a row referencing the name.
+     */
+    public int idOf(String name) {
+        OptionalInt id = find(name);
+        return id.isPresent() ? id.getAsInt() : register(name);
+    }
+
+    /**
+     * Looks up the ID of {@code name} without registering it, including names registered by the current
+     * transaction.
+     */
+    public OptionalInt find(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            PendingInstruments pending = (PendingInstruments) TransactionSynchronizationManager.getResource(this);
+            id = pending != null ? pending.ids.get(name) : null;
+        }
+        return id != null ? OptionalInt.of(id) : OptionalInt.empty();
+    }
+
+    public String nameOf(int id) {
+        String[] table = names;
+        String name = id >= 0 && id < table.length ? table[id] : null;
+        if (name == null) {
+            PendingInstruments pending = (PendingInstruments) TransactionSynchronizationManager.getResource(this);
+            name = pending != null ? pending.names.get(id) : null;
+        }
+        if (name == null) {
+            throw new IllegalArgumentException("Unknown instrument ID: " + id);
+        }
+        return name;
+    }
+
+    /**
+     * Names that contain {@code fragment}, ignoring case.
+     */
+    public List<String> namesContaining(String fragment) {
+        return namesOf(nameIndex.containing(fragment));
+    }
+
+    /**
+     * Names that start with {@code prefix}, ignoring case, in alphabetical order.
+     */
+    public List<String> namesStartingWith(String prefix) {
+        return namesOf(nameIndex.startingWith(prefix));
+    }
+
+    private List<String> namesOf(int[] instrumentIds) {
+        List<String> matches = new ArrayList<>(instrumentIds.length);
+        for (int id : instrumentIds) {
+            matches.add(nameOf(id));
+        }
+        return matches;
+    }
+
+    private int register(String name) {
+        int id = insertOrSelect(name);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(id, name);
+            return id;
+        }
+        PendingInstruments pending = (PendingInstruments) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingInstruments();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.ids.put(name, id);
+        pending.names.put(id, name);
+        return id;
+    }
+
+    /**
+     * Inserts the name through the caller's connection. The unique index makes a concurrent insert of the same name
+     * wait for the other transaction; if that one commits, its row is read instead.
+     */
+    private int insertOrSelect(String name) {
+        try {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO instruments (name) VALUES (?)", Statement.RETURN_GENERATED_KEYS);
+                statement.setString(1, name);
+                return statement;
+            }, keyHolder);
+            return keyHolder.getKey().intValue();
+        } catch (DuplicateKeyException e) {
+            return jdbcTemplate.queryForObject("SELECT id FROM instruments WHERE name = ?", Integer.class, name);
+        }
+    }
+
+    private void publish(int id, String name) {
+        writeLock.lock();
+        try {
+            if (!ids.containsKey(name)) {
+                put(id, name);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Publishes the name to readers; callers hold {@link #writeLock}. The name is stored in the table and the index
+     * before its ID is, so a reader that finds the ID can always resolve it back.
+     */
+    private void put(int id, String name) {
+        String[] table = names;
+        if (id >= table.length) {
+            table = Arrays.copyOf(table, Math.max(id + 1, table.length * 2));
+        }
+        table[id] = name;
+        names = table;
+        nameIndex.add(id, name);
+        ids.put(name, id);
+    }
+
+    private class PendingInstruments implements TransactionSynchronization {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final Map<Integer, String> names = new HashMap<>();
+
+        @Override
+        public void afterCommit() {
+            ids.forEach((name, id) -> publish(id, name));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(InstrumentRegistry.this);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.brokerage.journal;
+
+import com.brokerage.instrument.InstrumentRegistry;
+import com.brokerage.repository.AssetBatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rebuilds the orders and assets tables from the order journal before the matching engine and the balance ledger
+ * load them. Rows are written with plain JDBC so that replaying does not journal them a second time. Customers
+ * are not journaled; entries of customers that no longer exist are skipped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JournalReplayer {
+    private static final String INSERT_ORDER_SQL =
+            "INSERT INTO orders (id, customer_id, instrument_id, order_side, size, price, filled_size, status, create_date) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Keeps the first ID block handed out by the pooled sequence optimizer above every replayed ID
+    private static final long ORDER_ID_BLOCK = 50;
+
+    private final OrderJournal orderJournal;
+    private final JdbcTemplate jdbcTemplate;
+    private final AssetBatchRepository assetBatchRepository;
+    private final InstrumentRegistry instrumentRegistry;
+    private final PlatformTransactionManager transactionManager;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void replay() {
+        RecoveredState state = orderJournal.recovered();
+        if (state == null) {
+            return;
+        }
+        try {
+            if (!state.isEmpty()) {
+                replay(state);
+            }
+        } finally {
+            orderJournal.replayed();
+        }
+    }
+
+    private void replay(RecoveredState state) {
+        Set<Long> customerIds = new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM customers", Long.class));
+        List<Object[]> orders = new ArrayList<>();
+        for (JournaledOrder order : state.orders()) {
+            if (!customerIds.contains(order.customerId())) {
+                continue;
+            }
+            orders.add(new Object[]{order.id(), order.customerId(), instrumentRegistry.idOf(order.assetName()),
+                    order.orderSide().name(), order.size(), order.price(), order.filledSize(), order.status().name(),
+                    Timestamp.valueOf(order.createDate())});
+        }
+        List<AssetBatchRepository.BalanceRow> balances = state.balanceChanges().stream()
+                .filter(change -> customerIds.contains(change.customerId()))
+                .toList();
+
+        long nextOrderId = state.maxOrderId() + ORDER_ID_BLOCK + 1;
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_ORDER_SQL, orders);
+            assetBatchRepository.addBalances(balances);
+            jdbcTemplate.execute("ALTER SEQUENCE orders_seq RESTART WITH " + nextOrderId);
+        });
+        log.info("Replayed {} orders and {} balance changes from the order journal", orders.size(), balances.size());
+    }
+}
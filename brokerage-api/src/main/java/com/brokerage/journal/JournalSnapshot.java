@@ -0,0 +1,180 @@
+package com.brokerage.journal;
+
+import com.brokerage.entity.Side;
+import com.brokerage.entity.Status;
+import com.brokerage.ledger.BalanceLedger;
+import com.brokerage.service.BalanceChangeSet.BalanceKey;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * A {@link RecoveredState} written to disk together with the journal position it covers, so that a restart only
+ * reads the journal from there on. Orders and balances are fixed-width records that refer to a table of asset
+ * names, which lets a memory-mapped snapshot be encoded and decoded in parallel straight from the mapping.
+ * Every order is kept whatever its status, so a restart restores the same order history as a full replay, and
+ * balances are kept as the net changes of {@link RecoveredState}. Side and Status are stored by ordinal; bump
+ * {@link #VERSION} when either changes. A snapshot of another version is ignored and the journal replayed in full.
+ */
+record JournalSnapshot(long journalId, long position, RecoveredState state) {
+    private static final int MAGIC = 0x42534E50;
+    private static final int VERSION = 2;
+    private static final int ORDER_SIZE = 6 * Long.BYTES + 2 * Integer.BYTES + 2;
+    private static final int BALANCE_SIZE = 3 * Long.BYTES + Integer.BYTES;
+    private static final Side[] SIDES = Side.values();
+    private static final Status[] STATUSES = Status.values();
+
+    /**
+     * Reads the snapshot at {@code path}, or returns {@code null} when there is none or it has another version.
+     */
+    static JournalSnapshot load(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Order journal snapshot too large: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not an order journal snapshot: " + path);
+        }
+        if (buffer.getInt() != VERSION) {
+            return null;
+        }
+        long journalId = buffer.getLong();
+        long position = buffer.getLong();
+        long maxOrderId = buffer.getLong();
+        String[] assetNames = new String[buffer.getInt()];
+        for (int i = 0; i < assetNames.length; i++) {
+            byte[] name = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(name);
+            assetNames[i] = new String(name, StandardCharsets.UTF_8);
+        }
+        int orderCount = buffer.getInt();
+        int balanceCount = buffer.getInt();
+        int ordersStart = buffer.position();
+        int balancesStart = ordersStart + orderCount * ORDER_SIZE;
+
+        JournaledOrder[] orders = new JournaledOrder[orderCount];
+        IntStream.range(0, orderCount).parallel()
+                .forEach(i -> orders[i] = readOrder(buffer, ordersStart + i * ORDER_SIZE, assetNames));
+
+        RecoveredState state = new RecoveredState();
+        state.raiseMaxOrderId(maxOrderId);
+        for (JournaledOrder order : orders) {
+            state.order(order);
+        }
+        for (int i = 0; i < balanceCount; i++) {
+            int offset = balancesStart + i * BALANCE_SIZE;
+            state.balance(buffer.getLong(offset), assetNames[buffer.getInt(offset + Long.BYTES)],
+                    buffer.getLong(offset + Long.BYTES + Integer.BYTES),
+                    buffer.getLong(offset + 2 * Long.BYTES + Integer.BYTES));
+        }
+        return new JournalSnapshot(journalId, position, state);
+    }
+
+    /**
+     * Writes the snapshot next to {@code path} and moves it into place once it is on disk, so a crash while
+     * writing leaves the previous snapshot intact.
+     */
+    void write(Path path) throws IOException {
+        List<JournaledOrder> orders = new ArrayList<>(state.orders());
+        Map<BalanceKey, long[]> balances = state.balances();
+
+        Map<String, Integer> assetIds = new HashMap<>();
+        List<byte[]> assetNames = new ArrayList<>();
+        int assetNamesSize = 0;
+        for (String assetName : assetNamesOf(orders, balances)) {
+            if (!assetIds.containsKey(assetName)) {
+                byte[] name = assetName.getBytes(StandardCharsets.UTF_8);
+                assetIds.put(assetName, assetNames.size());
+                assetNames.add(name);
+                assetNamesSize += Short.BYTES + name.length;
+            }
+        }
+
+        long size = 2L * Integer.BYTES + 3L * Long.BYTES + 3L * Integer.BYTES + assetNamesSize
+                + (long) orders.size() * ORDER_SIZE + (long) balances.size() * BALANCE_SIZE;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Order journal snapshot too large: " + size + " bytes");
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(journalId).putLong(position)
+                    .putLong(state.maxOrderId()).putInt(assetNames.size());
+            for (byte[] name : assetNames) {
+                buffer.putShort((short) name.length).put(name);
+            }
+            buffer.putInt(orders.size()).putInt(balances.size());
+
+            int ordersStart = buffer.position();
+            IntStream.range(0, orders.size()).parallel()
+                    .forEach(i -> writeOrder(buffer, ordersStart + i * ORDER_SIZE, orders.get(i), assetIds));
+            buffer.position(ordersStart + orders.size() * ORDER_SIZE);
+            balances.forEach((key, net) -> buffer.putLong(key.customerId())
+                    .putInt(assetIds.get(key.assetName()))
+                    .putLong(net[0])
+                    .putLong(net[1]));
+            buffer.force();
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static List<String> assetNamesOf(List<JournaledOrder> orders, Map<BalanceKey, long[]> balances) {
+        List<String> names = new ArrayList<>(orders.size() + balances.size());
+        orders.forEach(order -> names.add(order.assetName()));
+        balances.keySet().forEach(key -> names.add(key.assetName()));
+        return names;
+    }
+
+    private static JournaledOrder readOrder(MappedByteBuffer buffer, int offset, String[] assetNames) {
+        return new JournaledOrder(
+                buffer.getLong(offset),
+                buffer.getLong(offset + 8),
+                assetNames[buffer.getInt(offset + 16)],
+                SIDES[buffer.get(offset + 20)],
+                STATUSES[buffer.get(offset + 21)],
+                BalanceLedger.toDecimal(buffer.getLong(offset + 22)),
+                BalanceLedger.toDecimal(buffer.getLong(offset + 30)),
+                BalanceLedger.toDecimal(buffer.getLong(offset + 38)),
+                LocalDateTime.ofEpochSecond(buffer.getLong(offset + 46), buffer.getInt(offset + 54), ZoneOffset.UTC));
+    }
+
+    private static void writeOrder(MappedByteBuffer buffer, int offset, JournaledOrder order,
+                                   Map<String, Integer> assetIds) {
+        buffer.putLong(offset, order.id())
+                .putLong(offset + 8, order.customerId())
+                .putInt(offset + 16, assetIds.get(order.assetName()))
+                .put(offset + 20, (byte) order.orderSide().ordinal())
+                .put(offset + 21, (byte) order.status().ordinal())
+                .putLong(offset + 22, BalanceLedger.toUnits(order.size()))
+                .putLong(offset + 30, BalanceLedger.toUnits(order.price()))
+                .putLong(offset + 38, BalanceLedger.toUnits(order.filledSize()))
+                .putLong(offset + 46, order.createDate().toEpochSecond(ZoneOffset.UTC))
+                .putInt(offset + 54, order.createDate().getNano());
+    }
+}
@@ -0,0 +1,11 @@
+package com.brokerage.journal;
+
+import com.brokerage.entity.Side;
+import com.brokerage.entity.Status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+record JournaledOrder(long id, long customerId, String assetName, Side orderSide, Status status,
+                      BigDecimal size, BigDecimal price, BigDecimal filledSize, LocalDateTime createDate) {
+}
@@ -0,0 +1,201 @@
+package com.brokerage.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of length-prefixed, checksummed records in a file that is memory-mapped one chunk at a time.
+ * A record that does not fit into the rest of a chunk starts the next one, leaving an end-of-chunk marker behind.
+ * Reading stops at the first empty slot or the first record whose checksum does not match (a write torn by a
+ * crash), and appending resumes from there. Positions are byte offsets into the file.
+ */
+final class MappedJournal implements Closeable {
+    private static final int MAGIC = 0x424A524E;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 3 * Integer.BYTES + Long.BYTES;
+    private static final int RECORD_OVERHEAD = 2 * Integer.BYTES;
+    private static final int END_OF_CHUNK = -1;
+
+    private final FileChannel channel;
+    private final int chunkSize;
+    private final long id;
+    private final CRC32C checksum = new CRC32C();
+    private MappedByteBuffer chunk;
+    private long chunkOffset;
+    private int syncedPosition;
+
+    /**
+     * Opens or creates the journal at {@code path}. A new file is laid out with {@code chunkSize} and a random
+     * ID; an existing one keeps the chunk size and ID it was created with. {@link #recover} must be called
+     * before the first append.
+     */
+    MappedJournal(Path path, int chunkSize) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() == 0) {
+                this.chunkSize = chunkSize;
+                this.id = ThreadLocalRandom.current().nextLong();
+                channel.write(ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).putInt(chunkSize)
+                        .putLong(id).flip(), 0);
+            } else {
+                if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                    throw new IOException("Not an order journal: " + path);
+                }
+                this.chunkSize = header.getInt();
+                this.id = header.getLong();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    long id() {
+        return id;
+    }
+
+    synchronized long position() {
+        return chunkOffset + chunk.position();
+    }
+
+    /**
+     * Hands every intact record from {@code from} on to {@code reader} and positions appends right after the
+     * last one.
+     */
+    synchronized void recover(long from, Consumer<ByteBuffer> reader) throws IOException {
+        long end = read(Math.max(from, HEADER_SIZE), Long.MAX_VALUE, reader);
+        chunkOffset = end - end % chunkSize;
+        chunk = map(chunkOffset);
+        chunk.position((int) (end - chunkOffset));
+        syncedPosition = chunk.position();
+        if (chunk.remaining() >= Integer.BYTES && chunk.getInt(chunk.position()) != 0) {
+            discardTail();
+        }
+    }
+
+    /**
+     * Hands the intact records between {@code from} and {@code to} to {@code reader} and returns the position
+     * reading stopped at. Safe to call while records are being appended, as long as {@code to} is a position
+     * returned by {@link #position()}.
+     */
+    long read(long from, long to, Consumer<ByteBuffer> reader) throws IOException {
+        CRC32C crc = new CRC32C();
+        long offset = from - from % chunkSize;
+        int position = (int) (from - offset);
+        if (offset >= channel.size()) {
+            return from;
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, chunkSize);
+        while (offset + position < to) {
+            int length = chunkSize - position < Integer.BYTES ? END_OF_CHUNK : buffer.getInt(position);
+            if (length == END_OF_CHUNK) {
+                offset += chunkSize;
+                position = 0;
+                if (offset >= channel.size()) {
+                    break;
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, chunkSize);
+                continue;
+            }
+            if (length <= 0 || length > chunkSize - position - RECORD_OVERHEAD) {
+                break;
+            }
+            ByteBuffer body = buffer.slice(position + Integer.BYTES, length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES + length)) {
+                break;
+            }
+            reader.accept(body);
+            position += length + RECORD_OVERHEAD;
+        }
+        return offset + position;
+    }
+
+    synchronized void append(List<ByteBuffer> bodies) throws IOException {
+        for (ByteBuffer body : bodies) {
+            int length = body.remaining();
+            if (length + RECORD_OVERHEAD > chunkSize - HEADER_SIZE) {
+                throw new IllegalArgumentException("Journal record of " + length + " bytes exceeds the chunk size");
+            }
+            if (chunk.remaining() < length + RECORD_OVERHEAD) {
+                if (chunk.remaining() >= Integer.BYTES) {
+                    chunk.putInt(END_OF_CHUNK);
+                }
+                chunk.force();
+                chunkOffset += chunkSize;
+                chunk = map(chunkOffset);
+                syncedPosition = 0;
+            }
+
+            checksum.reset();
+            checksum.update(body.duplicate());
+            chunk.putInt(length);
+            chunk.put(body);
+            chunk.putInt((int) checksum.getValue());
+        }
+    }
+
+    /**
+     * Forces everything appended since the previous call to disk. Appends keep going while the pages are
+     * written back; a chunk that fills up in the meantime is forced as a whole before it is left.
+     */
+    void sync() {
+        MappedByteBuffer target;
+        int from;
+        int to;
+        synchronized (this) {
+            target = chunk;
+            from = syncedPosition;
+            to = chunk.position();
+            syncedPosition = to;
+        }
+        if (to > from) {
+            target.force(from, to - from);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (chunk != null) {
+            chunk.force();
+        }
+        channel.close();
+    }
+
+    /**
+     * Zeroes the rest of the current chunk and drops later ones, so that bytes of a torn record can never be
+     * read back as the continuation of records appended after recovery.
+     */
+    private void discardTail() throws IOException {
+        byte[] zeros = new byte[64 * 1024];
+        int position = chunk.position();
+        while (chunk.hasRemaining()) {
+            chunk.put(zeros, 0, Math.min(zeros.length, chunk.remaining()));
+        }
+        chunk.force();
+        chunk.position(position);
+        channel.truncate(chunkOffset + chunkSize);
+    }
+
+    private MappedByteBuffer map(long offset) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, offset, chunkSize);
+    }
+}
@@ -0,0 +1,243 @@
+package com.brokerage.journal;
+
+import com.brokerage.entity.Order;
+import com.brokerage.entity.Side;
+import com.brokerage.entity.Status;
+import com.brokerage.ledger.BalanceLedger;
+import com.brokerage.money.Amount;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only binary journal of order states and balance changes when {@code journal.enabled} is set. Entries
+ * are appended once the producing transaction commits and forced to disk every {@code journal.fsync-interval-ms},
+ * so a machine crash can lose at most that window; {@link JournalReplayer} rebuilds the orders and assets tables
+ * from the journal on startup. Every {@code journal.snapshot.interval-ms} the entries appended since the previous
+ * snapshot are folded into a {@link JournalSnapshot} of balances and orders, so that a restart only reads
+ * the journal from the snapshot's position on.
+ */
+@Slf4j
+@Component
+public class OrderJournal {
+    private static final byte ORDER = 1;
+    private static final byte BALANCE = 2;
+
+    @Value("${journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${journal.path:data/orders.journal}")
+    private String path;
+
+    @Value("${journal.chunk-size-mb:64}")
+    private int chunkSizeMb;
+
+    @Value("${journal.snapshot.enabled:true}")
+    private boolean snapshotEnabled;
+
+    @Value("${journal.snapshot.path:data/orders.snapshot}")
+    private String snapshotPath;
+
+    private MappedJournal journal;
+    private RecoveredState recovered;
+    private volatile boolean replayed;
+    private RecoveredState snapshotState;
+    private long snapshotPosition;
+    private long writtenPosition = -1;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        journal = new MappedJournal(Path.of(path), chunkSizeMb * 1024 * 1024);
+
+        JournalSnapshot snapshot = snapshotEnabled ? JournalSnapshot.load(Path.of(snapshotPath)) : null;
+        if (snapshot != null && snapshot.journalId() != journal.id()) {
+            log.warn("Ignoring snapshot {}: it was taken from a different order journal", snapshotPath);
+            snapshot = null;
+        }
+        RecoveredState state = snapshot != null ? snapshot.state() : new RecoveredState();
+        journal.recover(snapshot != null ? snapshot.position() : 0, body -> read(body, state));
+
+        recovered = state;
+        snapshotState = state;
+        snapshotPosition = journal.position();
+        writtenPosition = snapshot != null ? snapshot.position() : -1;
+        log.info("Opened order journal {}{}", path, snapshot != null ? " from snapshot " + snapshotPath : "");
+    }
+
+    public void recordOrder(Order order) {
+        if (!enabled) {
+            return;
+        }
+        byte[] assetName = utf8(order.getAssetName());
+        byte[] side = utf8(order.getOrderSide().name());
+        byte[] status = utf8(order.getStatus().name());
+        LocalDateTime createDate = order.getCreateDate() != null ? order.getCreateDate() : LocalDateTime.now();
+
+        ByteBuffer entry = ByteBuffer.allocate(1 + 2 * Long.BYTES + 3 * Short.BYTES
+                + assetName.length + side.length + status.length + 4 * Long.BYTES + Integer.BYTES);
+        entry.put(ORDER)
+                .putLong(order.getId())
+                .putLong(order.getCustomer().getId());
+        putString(entry, assetName);
+        putString(entry, side);
+        putString(entry, status);
+        entry.putLong(BalanceLedger.toUnits(order.getSize()))
+                .putLong(BalanceLedger.toUnits(order.getPrice()))
+                .putLong(BalanceLedger.toUnits(order.getFilledSize()))
+                .putLong(createDate.toEpochSecond(ZoneOffset.UTC))
+                .putInt(createDate.getNano());
+        appendAfterCommit(entry.flip());
+    }
+
+    public void recordBalance(long customerId, String assetName, Amount sizeChange, Amount usableSizeChange) {
+        if (!enabled) {
+            return;
+        }
+        byte[] name = utf8(assetName);
+        ByteBuffer entry = ByteBuffer.allocate(1 + 3 * Long.BYTES + Short.BYTES + name.length);
+        entry.put(BALANCE).putLong(customerId);
+        putString(entry, name);
+        entry.putLong(BalanceLedger.toUnits(sizeChange))
+                .putLong(BalanceLedger.toUnits(usableSizeChange));
+        appendAfterCommit(entry.flip());
+    }
+
+    @Scheduled(fixedDelayString = "${journal.fsync-interval-ms:10}")
+    public void sync() {
+        if (journal != null) {
+            journal.sync();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${journal.snapshot.interval-ms:300000}")
+    public void snapshot() {
+        if (journal == null || !snapshotEnabled || !replayed) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            snapshotPosition = journal.read(snapshotPosition, journal.position(), body -> read(body, snapshotState));
+            if (snapshotPosition == writtenPosition) {
+                return;
+            }
+            new JournalSnapshot(journal.id(), snapshotPosition, snapshotState).write(Path.of(snapshotPath));
+            writtenPosition = snapshotPosition;
+            log.info("Wrote order journal snapshot of {} orders in {} ms",
+                    snapshotState.orders().size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not write order journal snapshot {}", snapshotPath, e);
+        }
+    }
+
+    /**
+     * State read while opening the journal, until {@link #replayed()} is called.
+     */
+    RecoveredState recovered() {
+        return recovered;
+    }
+
+    /**
+     * Releases the recovered state to the snapshot task, which folds new entries into it from then on.
+     */
+    void replayed() {
+        recovered = null;
+        replayed = true;
+    }
+
+    private void appendAfterCommit(ByteBuffer entry) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(List.of(entry));
+            return;
+        }
+
+        PendingEntries pending = (PendingEntries) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEntries();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.entries.add(entry);
+    }
+
+    private void append(List<ByteBuffer> entries) {
+        try {
+            journal.append(entries);
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not append {} entries to the order journal", entries.size(), e);
+        }
+    }
+
+    private static void read(ByteBuffer body, RecoveredState state) {
+        byte type = body.get();
+        switch (type) {
+            case ORDER -> state.order(new JournaledOrder(
+                    body.getLong(),
+                    body.getLong(),
+                    getString(body),
+                    Side.valueOf(getString(body)),
+                    Status.valueOf(getString(body)),
+                    BalanceLedger.toDecimal(body.getLong()),
+                    BalanceLedger.toDecimal(body.getLong()),
+                    BalanceLedger.toDecimal(body.getLong()),
+                    LocalDateTime.ofEpochSecond(body.getLong(), body.getInt(), ZoneOffset.UTC)));
+            case BALANCE -> state.balance(body.getLong(), getString(body), body.getLong(), body.getLong());
+            default -> throw new IllegalStateException("Unknown order journal entry type " + type);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        buffer.putShort((short) value.length).put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] value = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private class PendingEntries implements TransactionSynchronization {
+        private final List<ByteBuffer> entries = new ArrayList<>();
+
+        @Override
+        public void afterCommit() {
+            append(entries);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(OrderJournal.this);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.brokerage.journal;
+
+import com.brokerage.entity.Order;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class OrderJournalListener {
+    private final OrderJournal orderJournal;
+
+    @PostPersist
+    @PostUpdate
+    public void onOrderWritten(Order order) {
+        orderJournal.recordOrder(order);
+    }
+}
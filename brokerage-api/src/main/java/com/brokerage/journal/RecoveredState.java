@@ -0,0 +1,64 @@
+package com.brokerage.journal;
+
+import com.brokerage.ledger.BalanceLedger;
+import com.brokerage.repository.AssetBatchRepository.BalanceRow;
+import com.brokerage.service.BalanceChangeSet.BalanceKey;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Journal entries folded into the latest state of every order, in any status, and the net balance change per
+ * (customer, asset), in units of {@link BalanceLedger#SCALE} decimal places. Balances are changes since the journal
+ * was started, not absolute values: restoring means adding them to the balances the application seeds on every
+ * start, which are the balances the journal started from.
+ */
+final class RecoveredState {
+    private final Map<Long, JournaledOrder> orders = new HashMap<>();
+    private final Map<BalanceKey, long[]> balances = new HashMap<>();
+    private long maxOrderId;
+
+    void order(JournaledOrder order) {
+        orders.put(order.id(), order);
+        raiseMaxOrderId(order.id());
+    }
+
+    void raiseMaxOrderId(long orderId) {
+        maxOrderId = Math.max(maxOrderId, orderId);
+    }
+
+    void balance(long customerId, String assetName, long sizeChange, long usableSizeChange) {
+        long[] net = balances.computeIfAbsent(new BalanceKey(customerId, assetName), key -> new long[2]);
+        net[0] += sizeChange;
+        net[1] += usableSizeChange;
+    }
+
+    /**
+     * Highest order ID ever journaled.
+     */
+    long maxOrderId() {
+        return maxOrderId;
+    }
+
+    Collection<JournaledOrder> orders() {
+        return orders.values();
+    }
+
+    Map<BalanceKey, long[]> balances() {
+        return balances;
+    }
+
+    List<BalanceRow> balanceChanges() {
+        List<BalanceRow> rows = new ArrayList<>(balances.size());
+        balances.forEach((key, net) -> rows.add(new BalanceRow(key.customerId(), key.assetName(),
+                BalanceLedger.toDecimal(net[0]), BalanceLedger.toDecimal(net[1]))));
+        return rows;
+    }
+
+    boolean isEmpty() {
+        return orders.isEmpty() && balances.isEmpty();
+    }
+}
@@ -0,0 +1,307 @@
+package com.brokerage.ledger;
+
+import com.brokerage.entity.Asset;
+import com.brokerage.exception.InsufficientBalanceException;
+import com.brokerage.instrument.InstrumentRegistry;
+import com.brokerage.journal.OrderJournal;
+import com.brokerage.money.Amount;
+import com.brokerage.repository.AssetRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Authoritative in-memory balances when {@code balance.ledger.enabled} is set. Amounts are stored as longs
+ * scaled by {@link #SCALE} decimal places, keyed by customer ID and instrument ID. Changes made inside a
+ * transaction are staged with it: debits are held against the balance right away so that no other transaction can
+ * spend the same money, and the balances only change once the transaction has committed. A rolled-back transaction
+ * just releases its holds. Committed changes are coalesced per balance and queued for {@link LedgerFlusher}, which
+ * adds them to the {@code assets} table in the background, so order transactions never write balance rows. The
+ * order journal is what makes committed changes durable: it records every one of them, and the assets table is
+ * rebuilt from it on startup before the ledger is loaded. The ledger therefore refuses to run without it.
+ */
+@Component
+@RequiredArgsConstructor
+public class BalanceLedger {
+    public static final int SCALE = 2;
+
+    private final AssetRepository assetRepository;
+    private final InstrumentRegistry instrumentRegistry;
+    private final OrderJournal orderJournal;
+
+    @Value("${balance.ledger.enabled:false}")
+    private boolean enabled;
+
+    private volatile AtomicReferenceArray<LedgerAccount> accounts = new AtomicReferenceArray<>(64);
+    private final Queue<LedgerAccount> dirtyAccounts = new ConcurrentLinkedQueue<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void checkJournal() {
+        if (enabled && !orderJournal.isEnabled()) {
+            throw new IllegalStateException(
+                    "balance.ledger.enabled requires journal.enabled: unflushed balances are only recovered from the journal");
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        for (Asset asset : assetRepository.findAll()) {
+            LedgerAccount account = accountFor(asset.getCustomer().getId());
+            int assetId = instrumentRegistry.idOf(asset.getAssetName());
+            synchronized (account) {
+                account.ensureCapacity(assetId);
+                account.sizes[assetId] = toUnits(asset.getSize());
+                account.usableSizes[assetId] = toUnits(asset.getUsableSize());
+                account.rowIds[assetId] = asset.getId();
+                account.held.set(assetId);
+            }
+        }
+    }
+
+    public void reserve(long customerId, String assetName, BigDecimal amount) {
+        long units = toUnits(amount);
+        apply(customerId, assetName, 0, -units);
+    }
+
+    public void reserve(long customerId, String assetName, Amount amount) {
+        apply(customerId, assetName, 0, Math.negateExact(toUnits(amount)));
+    }
+
+    public void apply(long customerId, String assetName, BigDecimal sizeChange, BigDecimal usableSizeChange) {
+        apply(customerId, assetName, toUnits(sizeChange), toUnits(usableSizeChange));
+    }
+
+    public void apply(long customerId, String assetName, Amount sizeChange, Amount usableSizeChange) {
+        apply(customerId, assetName, toUnits(sizeChange), toUnits(usableSizeChange));
+    }
+
+    public void apply(long customerId, String assetName, long sizeChange, long usableSizeChange) {
+        LedgerAccount account = accountFor(customerId);
+        int assetId = instrumentRegistry.idOf(assetName);
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        PendingChanges pending = inTransaction ? pendingChanges() : new PendingChanges();
+        PendingChange change = pending.changeOf(account, assetId);
+        synchronized (account) {
+            account.ensureCapacity(assetId);
+            if (usableSizeChange < 0) {
+                // Credits of this transaction count, but not those of others, which may still roll back
+                long credited = change.usableSizeChange + change.held;
+                long available = account.usableSizes[assetId] - account.heldSizes[assetId] + credited;
+                if (Math.addExact(available, usableSizeChange) < 0) {
+                    throw new InsufficientBalanceException("Insufficient " + assetName + " balance");
+                }
+                account.heldSizes[assetId] -= usableSizeChange;
+                change.held -= usableSizeChange;
+            }
+            change.sizeChange = Math.addExact(change.sizeChange, sizeChange);
+            change.usableSizeChange = Math.addExact(change.usableSizeChange, usableSizeChange);
+        }
+        if (!inTransaction) {
+            pending.afterCommit();
+        }
+    }
+
+    public List<LedgerBalance> balancesOf(long customerId) {
+        LedgerAccount account = findAccount(customerId);
+        if (account == null) {
+            return List.of();
+        }
+        List<LedgerBalance> balances = new ArrayList<>();
+        synchronized (account) {
+            for (int assetId = account.held.nextSetBit(0); assetId >= 0; assetId = account.held.nextSetBit(assetId + 1)) {
+                balances.add(snapshot(account, assetId));
+            }
+        }
+        return balances;
+    }
+
+    public boolean hasAccount(long customerId) {
+        return findAccount(customerId) != null;
+    }
+
+    /**
+     * Takes the committed changes not flushed yet, one per balance.
+     */
+    List<LedgerDelta> drainDirty() {
+        List<LedgerDelta> deltas = new ArrayList<>();
+        LedgerAccount account;
+        while ((account = dirtyAccounts.poll()) != null) {
+            synchronized (account) {
+                account.queued = false;
+                for (int assetId = account.dirty.nextSetBit(0); assetId >= 0; assetId = account.dirty.nextSetBit(assetId + 1)) {
+                    deltas.add(new LedgerDelta(account.customerId, assetId, instrumentRegistry.nameOf(assetId),
+                            account.unflushedSizes[assetId], account.unflushedUsableSizes[assetId]));
+                    account.unflushedSizes[assetId] = 0;
+                    account.unflushedUsableSizes[assetId] = 0;
+                }
+                account.dirty.clear();
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * Puts back changes whose flush failed, so that the next flush writes them together with newer ones.
+     */
+    void restore(List<LedgerDelta> deltas) {
+        for (LedgerDelta delta : deltas) {
+            LedgerAccount account = accountFor(delta.customerId());
+            synchronized (account) {
+                addUnflushed(account, delta.assetId(), delta.sizeChange(), delta.usableSizeChange());
+            }
+        }
+    }
+
+    void assignRowId(LedgerDelta delta, long rowId) {
+        LedgerAccount account = accountFor(delta.customerId());
+        synchronized (account) {
+            account.rowIds[delta.assetId()] = rowId;
+        }
+    }
+
+    public static long toUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static long toUnits(Amount amount) {
+        return amount.scale() == SCALE ? amount.units() : toUnits(amount.toBigDecimal());
+    }
+
+    public static BigDecimal toDecimal(long units) {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    private LedgerBalance snapshot(LedgerAccount account, int assetId) {
+        long rowId = account.rowIds[assetId];
+        return new LedgerBalance(account.customerId, assetId, instrumentRegistry.nameOf(assetId), rowId == 0 ? null : rowId,
+                account.sizes[assetId], account.usableSizes[assetId]);
+    }
+
+    private void addUnflushed(LedgerAccount account, int assetId, long sizeChange, long usableSizeChange) {
+        account.unflushedSizes[assetId] += sizeChange;
+        account.unflushedUsableSizes[assetId] += usableSizeChange;
+        account.dirty.set(assetId);
+        if (!account.queued) {
+            account.queued = true;
+            dirtyAccounts.add(account);
+        }
+    }
+
+    private PendingChanges pendingChanges() {
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private LedgerAccount findAccount(long customerId) {
+        AtomicReferenceArray<LedgerAccount> table = accounts;
+        return customerId >= 0 && customerId < table.length() ? table.get((int) customerId) : null;
+    }
+
+    private LedgerAccount accountFor(long customerId) {
+        LedgerAccount account = findAccount(customerId);
+        if (account != null) {
+            return account;
+        }
+        synchronized (this) {
+            AtomicReferenceArray<LedgerAccount> table = accounts;
+            if (customerId >= table.length()) {
+                int capacity = table.length();
+                while (capacity <= customerId) {
+                    capacity = Math.multiplyExact(capacity, 2);
+                }
+                AtomicReferenceArray<LedgerAccount> grown = new AtomicReferenceArray<>(capacity);
+                for (int i = 0; i < table.length(); i++) {
+                    grown.set(i, table.get(i));
+                }
+                table = grown;
+            }
+            account = table.get((int) customerId);
+            if (account == null) {
+                account = new LedgerAccount(customerId);
+                table.set((int) customerId, account);
+            }
+            accounts = table;
+            return account;
+        }
+    }
+
+    /**
+     * Net change of one balance within one transaction, and how much of its usable size the transaction holds.
+     */
+    private static final class PendingChange {
+        private final LedgerAccount account;
+        private final int assetId;
+        private long sizeChange;
+        private long usableSizeChange;
+        private long held;
+
+        private PendingChange(LedgerAccount account, int assetId) {
+            this.account = account;
+            this.assetId = assetId;
+        }
+    }
+
+    private class PendingChanges implements TransactionSynchronization {
+        private final Map<Long, PendingChange> changes = new HashMap<>();
+
+        PendingChange changeOf(LedgerAccount account, int assetId) {
+            return changes.computeIfAbsent(account.customerId << 32 | assetId,
+                    key -> new PendingChange(account, assetId));
+        }
+
+        @Override
+        public void afterCommit() {
+            for (PendingChange change : changes.values()) {
+                LedgerAccount account = change.account;
+                int assetId = change.assetId;
+                synchronized (account) {
+                    account.sizes[assetId] += change.sizeChange;
+                    account.usableSizes[assetId] += change.usableSizeChange;
+                    account.heldSizes[assetId] -= change.held;
+                    account.held.set(assetId);
+                    addUnflushed(account, assetId, change.sizeChange, change.usableSizeChange);
+                }
+            }
+            changes.clear();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BalanceLedger.this);
+            // Empty once committed; otherwise nothing was applied and only the holds are left to release
+            for (PendingChange change : changes.values()) {
+                synchronized (change.account) {
+                    change.account.heldSizes[change.assetId] -= change.held;
+                }
+            }
+            changes.clear();
+        }
+    }
+}
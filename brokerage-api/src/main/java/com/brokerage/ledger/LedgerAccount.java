@@ -0,0 +1,40 @@
+package com.brokerage.ledger;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Balances of one customer, indexed by asset ID. All access is guarded by the account's monitor.
+ */
+class LedgerAccount {
+    private static final int INITIAL_CAPACITY = 8;
+
+    final long customerId;
+    long[] sizes = new long[INITIAL_CAPACITY];
+    long[] usableSizes = new long[INITIAL_CAPACITY];
+    long[] rowIds = new long[INITIAL_CAPACITY];
+    // Usable size held by debits of transactions that have not completed yet
+    long[] heldSizes = new long[INITIAL_CAPACITY];
+    // Committed changes not yet written to the assets table
+    long[] unflushedSizes = new long[INITIAL_CAPACITY];
+    long[] unflushedUsableSizes = new long[INITIAL_CAPACITY];
+    final BitSet held = new BitSet();
+    final BitSet dirty = new BitSet();
+    boolean queued;
+
+    LedgerAccount(long customerId) {
+        this.customerId = customerId;
+    }
+
+    void ensureCapacity(int assetId) {
+        if (assetId >= sizes.length) {
+            int capacity = Math.max(assetId + 1, sizes.length * 2);
+            sizes = Arrays.copyOf(sizes, capacity);
+            usableSizes = Arrays.copyOf(usableSizes, capacity);
+            rowIds = Arrays.copyOf(rowIds, capacity);
+            heldSizes = Arrays.copyOf(heldSizes, capacity);
+            unflushedSizes = Arrays.copyOf(unflushedSizes, capacity);
+            unflushedUsableSizes = Arrays.copyOf(unflushedUsableSizes, capacity);
+        }
+    }
+}
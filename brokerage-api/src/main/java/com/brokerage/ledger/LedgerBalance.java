@@ -0,0 +1,4 @@
+package com.brokerage.ledger;
+
+public record LedgerBalance(long customerId, int assetId, String assetName, Long rowId, long size, long usableSize) {
+}
@@ -0,0 +1,7 @@
+package com.brokerage.ledger;
+
+/**
+ * Committed change of one ledger balance since it was last flushed, in units of {@link BalanceLedger#SCALE}.
+ */
+record LedgerDelta(long customerId, int assetId, String assetName, long sizeChange, long usableSizeChange) {
+}
@@ -0,0 +1,71 @@
+package com.brokerage.ledger;
+
+import com.brokerage.repository.AssetBatchRepository;
+import com.brokerage.repository.AssetBatchRepository.BalanceRow;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes committed ledger changes back to the {@code assets} table in the background. All changes to a balance
+ * since the last flush are added to its row as one delta, and a whole flush commits in one transaction, so an
+ * interrupted flush leaves the table at the previous flush and its deltas are simply written by the next one.
+ * Deltas rather than absolute values are written, so a flush never overwrites a newer value with an older one.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LedgerFlusher {
+    private final BalanceLedger balanceLedger;
+    private final AssetBatchRepository assetBatchRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // Keeps the shutdown flush from inserting the same new rows as a scheduled one still running
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Scheduled(fixedDelayString = "${balance.ledger.flush-interval-ms:100}")
+    public void flush() {
+        if (!balanceLedger.isEnabled()) {
+            return;
+        }
+
+        flushLock.lock();
+        try {
+            List<LedgerDelta> deltas = balanceLedger.drainDirty();
+            if (deltas.isEmpty()) {
+                return;
+            }
+
+            List<BalanceRow> rows = new ArrayList<>(deltas.size());
+            for (LedgerDelta delta : deltas) {
+                rows.add(new BalanceRow(delta.customerId(), delta.assetName(),
+                        BalanceLedger.toDecimal(delta.sizeChange()), BalanceLedger.toDecimal(delta.usableSizeChange())));
+            }
+
+            try {
+                Map<Integer, Long> insertedIds = new TransactionTemplate(transactionManager)
+                        .execute(status -> assetBatchRepository.addBalancesReturningIds(rows));
+                insertedIds.forEach((index, rowId) -> balanceLedger.assignRowId(deltas.get(index), rowId));
+            } catch (RuntimeException e) {
+                log.warn("Ledger flush of {} balances failed, will retry", deltas.size(), e);
+                balanceLedger.restore(deltas);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
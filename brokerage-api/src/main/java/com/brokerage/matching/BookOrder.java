@@ -0,0 +1,49 @@
+package com.brokerage.matching;
+
+import com.brokerage.entity.Side;
+
+import java.math.BigDecimal;
+
+public class BookOrder {
+    private final long orderId;
+    private final long customerId;
+    private final Side side;
+    private final BigDecimal price;
+    private BigDecimal remaining;
+
+    public BookOrder(long orderId, long customerId, Side side, BigDecimal price, BigDecimal remaining) {
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.side = side;
+        this.price = price;
+        this.remaining = remaining;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public long getCustomerId() {
+        return customerId;
+    }
+
+    public Side getSide() {
+        return side;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public BigDecimal getRemaining() {
+        return remaining;
+    }
+
+    void reduce(BigDecimal size) {
+        remaining = remaining.subtract(size);
+    }
+
+    boolean isFilled() {
+        return remaining.signum() <= 0;
+    }
+}
@@ -0,0 +1,6 @@
+package com.brokerage.matching;
+
+import java.math.BigDecimal;
+
+public record Fill(long buyOrderId, long sellOrderId, BigDecimal price, BigDecimal size) {
+}
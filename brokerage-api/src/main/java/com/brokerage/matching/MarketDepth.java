@@ -0,0 +1,63 @@
+package com.brokerage.matching;
+
+import com.brokerage.entity.Side;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Total resting size per price level for one asset. Only the book's sequencer thread writes; readers on
+ * other threads see each level atomically but may observe a snapshot that is mid-way through a match.
+ */
+public class MarketDepth {
+    private final NavigableMap<BigDecimal, BigDecimal> bids = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+    private final NavigableMap<BigDecimal, BigDecimal> asks = new ConcurrentSkipListMap<>();
+
+    void add(Side side, BigDecimal price, BigDecimal size) {
+        sideOf(side).merge(price, size, BigDecimal::add);
+    }
+
+    void subtract(Side side, BigDecimal price, BigDecimal size) {
+        sideOf(side).computeIfPresent(price, (level, total) -> {
+            BigDecimal remaining = total.subtract(size);
+            return remaining.signum() > 0 ? remaining : null;
+        });
+    }
+
+    public List<PriceLevel> levels(Side side, int maxLevels) {
+        NavigableMap<BigDecimal, BigDecimal> levels = sideOf(side);
+        if (levels.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<PriceLevel> result = new ArrayList<>(Math.min(maxLevels, 16));
+        for (Map.Entry<BigDecimal, BigDecimal> level : levels.entrySet()) {
+            if (result.size() == maxLevels) {
+                break;
+            }
+            result.add(new PriceLevel(level.getKey(), level.getValue()));
+        }
+        return result;
+    }
+
+    public boolean isCrossed() {
+        Map.Entry<BigDecimal, BigDecimal> bid = bids.firstEntry();
+        Map.Entry<BigDecimal, BigDecimal> ask = asks.firstEntry();
+        return bid != null && ask != null && bid.getKey().compareTo(ask.getKey()) >= 0;
+    }
+
+    public PriceLevel best(Side side) {
+        Map.Entry<BigDecimal, BigDecimal> best = sideOf(side).firstEntry();
+        return best == null ? null : new PriceLevel(best.getKey(), best.getValue());
+    }
+
+    private NavigableMap<BigDecimal, BigDecimal> sideOf(Side side) {
+        return side == Side.BUY ? bids : asks;
+    }
+}
@@ -0,0 +1,145 @@
+package com.brokerage.matching;
+
+import com.brokerage.entity.Order;
+import com.brokerage.entity.Side;
+import com.brokerage.entity.Status;
+import com.brokerage.repository.OrderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds one {@link OrderBook} per asset. Books are not thread-safe: every mutation for an asset must run
+ * on that asset's {@link OrderSequencer} thread. The per-asset pending gauge reads the book size without
+ * that confinement, so a scrape may see a value one command stale.
+ */
+@Component
+@RequiredArgsConstructor
+public class MatchingEngine {
+    private final OrderRepository orderRepository;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, OrderBook> books = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPendingOrders() {
+        books.clear();
+        for (Order order : orderRepository.findByStatusOrderByCreateDateAscIdAsc(Status.PENDING)) {
+            bookFor(order.getAssetName()).rest(toBookOrder(order));
+        }
+    }
+
+    public List<Fill> submit(Order order) {
+        OrderBook book = bookFor(order.getAssetName());
+        reloadOnRollback(order.getAssetName());
+        return book.match(toBookOrder(order));
+    }
+
+    /**
+     * Customers whose balances a new order would settle against if it were submitted now. Only stable until the
+     * asset's next command, so it must be called on the asset's {@link OrderSequencer} thread.
+     */
+    public Set<Long> counterparties(String assetName, Side side, BigDecimal price, BigDecimal size) {
+        OrderBook book = books.get(assetName);
+        return book == null ? Set.of() : book.counterparties(side, price, size);
+    }
+
+    public void remove(Order order) {
+        OrderBook book = bookFor(order.getAssetName());
+        reloadOnRollback(order.getAssetName());
+        book.remove(order.getId());
+    }
+
+    public void reload(String assetName) {
+        OrderBook book = new OrderBook(assetName);
+        for (Order order : orderRepository.findByAssetNameAndStatusOrderByCreateDateAscIdAsc(assetName, Status.PENDING)) {
+            book.rest(toBookOrder(order));
+        }
+        books.put(assetName, book);
+    }
+
+    public OrderBook bookFor(String assetName) {
+        return books.computeIfAbsent(assetName, this::newBook);
+    }
+
+    public List<Fill> uncross(String assetName, int maxFills) {
+        OrderBook book = books.get(assetName);
+        if (book == null) {
+            return List.of();
+        }
+        reloadOnRollback(assetName);
+        return book.uncross(maxFills);
+    }
+
+    public List<String> crossedAssets() {
+        List<String> crossed = new ArrayList<>();
+        books.forEach((assetName, book) -> {
+            if (book.getDepth().isCrossed()) {
+                crossed.add(assetName);
+            }
+        });
+        return crossed;
+    }
+
+    public MarketDepth depthOf(String assetName) {
+        OrderBook book = books.get(assetName);
+        return book == null ? null : book.getDepth();
+    }
+
+    private OrderBook newBook(String assetName) {
+        Gauge.builder("brokerage.orders.pending", this, engine -> engine.pendingCount(assetName))
+                .tag("asset", assetName)
+                .register(meterRegistry);
+        return new OrderBook(assetName);
+    }
+
+    private int pendingCount(String assetName) {
+        OrderBook book = books.get(assetName);
+        return book == null ? 0 : book.size();
+    }
+
+    private void reloadOnRollback(String assetName) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TouchedBooks touched = (TouchedBooks) TransactionSynchronizationManager.getResource(this);
+        if (touched == null) {
+            touched = new TouchedBooks();
+            TransactionSynchronizationManager.bindResource(this, touched);
+            TransactionSynchronizationManager.registerSynchronization(touched);
+        }
+        touched.assetNames.add(assetName);
+    }
+
+    private BookOrder toBookOrder(Order order) {
+        return new BookOrder(order.getId(), order.getCustomer().getId(), order.getOrderSide(), order.getPrice(),
+                order.getRemainingSize());
+    }
+
+    /**
+     * Assets whose books a transaction changed, each reloaded once if the transaction does not commit.
+     */
+    private class TouchedBooks implements TransactionSynchronization {
+        private final Set<String> assetNames = new HashSet<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(MatchingEngine.this);
+            if (status != STATUS_COMMITTED) {
+                assetNames.forEach(MatchingEngine.this::reload);
+            }
+        }
+    }
+}
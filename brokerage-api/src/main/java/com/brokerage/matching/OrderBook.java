@@ -0,0 +1,179 @@
+package com.brokerage.matching;
+
+import com.brokerage.entity.Side;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Limit order book for a single asset. Price levels are kept sorted (bids descending, asks ascending)
+ * and orders within a level are matched in arrival order. Trades execute at the resting order's price.
+ */
+public class OrderBook {
+    private final String assetName;
+    private final NavigableMap<BigDecimal, Deque<BookOrder>> bids = new TreeMap<>(Comparator.reverseOrder());
+    private final NavigableMap<BigDecimal, Deque<BookOrder>> asks = new TreeMap<>();
+    private final Map<Long, BookOrder> orders = new HashMap<>();
+    private final MarketDepth depth = new MarketDepth();
+
+    public OrderBook(String assetName) {
+        this.assetName = assetName;
+    }
+
+    public String getAssetName() {
+        return assetName;
+    }
+
+    public MarketDepth getDepth() {
+        return depth;
+    }
+
+    public List<Fill> match(BookOrder incoming) {
+        NavigableMap<BigDecimal, Deque<BookOrder>> opposite = incoming.getSide() == Side.BUY ? asks : bids;
+        List<Fill> fills = new ArrayList<>();
+
+        while (!incoming.isFilled() && !opposite.isEmpty()) {
+            Map.Entry<BigDecimal, Deque<BookOrder>> best = opposite.firstEntry();
+            if (!crosses(incoming, best.getKey())) {
+                break;
+            }
+
+            Deque<BookOrder> level = best.getValue();
+            BookOrder resting = level.peekFirst();
+            BigDecimal size = incoming.getRemaining().min(resting.getRemaining());
+
+            fills.add(incoming.getSide() == Side.BUY
+                    ? new Fill(incoming.getOrderId(), resting.getOrderId(), resting.getPrice(), size)
+                    : new Fill(resting.getOrderId(), incoming.getOrderId(), resting.getPrice(), size));
+
+            incoming.reduce(size);
+            resting.reduce(size);
+            depth.subtract(resting.getSide(), resting.getPrice(), size);
+
+            if (resting.isFilled()) {
+                level.pollFirst();
+                orders.remove(resting.getOrderId());
+                if (level.isEmpty()) {
+                    opposite.remove(best.getKey());
+                }
+            }
+        }
+
+        if (!incoming.isFilled()) {
+            rest(incoming);
+        }
+        return fills;
+    }
+
+    /**
+     * Customers of the resting orders that an incoming order of the given side, limit price and size would trade
+     * with, without changing the book.
+     */
+    public Set<Long> counterparties(Side side, BigDecimal price, BigDecimal size) {
+        NavigableMap<BigDecimal, Deque<BookOrder>> opposite = side == Side.BUY ? asks : bids;
+        Set<Long> customerIds = new HashSet<>();
+        BigDecimal remaining = size;
+
+        for (Map.Entry<BigDecimal, Deque<BookOrder>> level : opposite.entrySet()) {
+            int cmp = price.compareTo(level.getKey());
+            if (side == Side.BUY ? cmp < 0 : cmp > 0) {
+                break;
+            }
+            for (BookOrder resting : level.getValue()) {
+                if (remaining.signum() <= 0) {
+                    return customerIds;
+                }
+                customerIds.add(resting.getCustomerId());
+                remaining = remaining.subtract(resting.getRemaining());
+            }
+        }
+        return customerIds;
+    }
+
+    /**
+     * Matches the best bid against the best ask while they cross, which only happens when resting orders
+     * were loaded without matching. The earlier order (lower id) is treated as resting and sets the price.
+     */
+    public List<Fill> uncross(int maxFills) {
+        List<Fill> fills = new ArrayList<>();
+
+        while (fills.size() < maxFills && !bids.isEmpty() && !asks.isEmpty()
+                && bids.firstKey().compareTo(asks.firstKey()) >= 0) {
+            Map.Entry<BigDecimal, Deque<BookOrder>> bidLevel = bids.firstEntry();
+            Map.Entry<BigDecimal, Deque<BookOrder>> askLevel = asks.firstEntry();
+            BookOrder buy = bidLevel.getValue().peekFirst();
+            BookOrder sell = askLevel.getValue().peekFirst();
+            BigDecimal price = buy.getOrderId() < sell.getOrderId() ? buy.getPrice() : sell.getPrice();
+            BigDecimal size = buy.getRemaining().min(sell.getRemaining());
+
+            fills.add(new Fill(buy.getOrderId(), sell.getOrderId(), price, size));
+            buy.reduce(size);
+            sell.reduce(size);
+            depth.subtract(Side.BUY, buy.getPrice(), size);
+            depth.subtract(Side.SELL, sell.getPrice(), size);
+            removeIfFilled(bids, bidLevel, buy);
+            removeIfFilled(asks, askLevel, sell);
+        }
+        return fills;
+    }
+
+    public void rest(BookOrder order) {
+        sideOf(order.getSide())
+                .computeIfAbsent(order.getPrice(), price -> new ArrayDeque<>())
+                .addLast(order);
+        orders.put(order.getOrderId(), order);
+        depth.add(order.getSide(), order.getPrice(), order.getRemaining());
+    }
+
+    public boolean remove(long orderId) {
+        BookOrder order = orders.remove(orderId);
+        if (order == null) {
+            return false;
+        }
+
+        NavigableMap<BigDecimal, Deque<BookOrder>> side = sideOf(order.getSide());
+        Deque<BookOrder> level = side.get(order.getPrice());
+        level.remove(order);
+        if (level.isEmpty()) {
+            side.remove(order.getPrice());
+        }
+        depth.subtract(order.getSide(), order.getPrice(), order.getRemaining());
+        return true;
+    }
+
+    public boolean contains(long orderId) {
+        return orders.containsKey(orderId);
+    }
+
+    public int size() {
+        return orders.size();
+    }
+
+    public BigDecimal bestBid() {
+        return bids.isEmpty() ? null : bids.firstKey();
+    }
+
+    public BigDecimal bestAsk() {
+        return asks.isEmpty() ? null : asks.firstKey();
+    }
+
+    private void removeIfFilled(NavigableMap<BigDecimal, Deque<BookOrder>> side,
+                                Map.Entry<BigDecimal, Deque<BookOrder>> level, BookOrder order) {
+        if (order.isFilled()) {
+            level.getValue().pollFirst();
+            orders.remove(order.getOrderId());
+            if (level.getValue().isEmpty()) {
+                side.remove(level.getKey());
+            }
+        }
+    }
+
+    private boolean crosses(BookOrder incoming, BigDecimal restingPrice) {
+        int cmp = incoming.getPrice().compareTo(restingPrice);
+        return incoming.getSide() == Side.BUY ? cmp >= 0 : cmp <= 0;
+    }
+
+    private NavigableMap<BigDecimal, Deque<BookOrder>> sideOf(Side side) {
+        return side == Side.BUY ? bids : asks;
+    }
+}
@@ -0,0 +1,27 @@
+package com.brokerage.matching;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+class OrderCommandEvent {
+    private Supplier<?> command;
+    private CompletableFuture<Object> result;
+
+    void set(Supplier<?> command, CompletableFuture<Object> result) {
+        this.command = command;
+        this.result = result;
+    }
+
+    void execute() {
+        Supplier<?> command = this.command;
+        CompletableFuture<Object> result = this.result;
+        this.command = null;
+        this.result = null;
+
+        try {
+            result.complete(command.get());
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+}
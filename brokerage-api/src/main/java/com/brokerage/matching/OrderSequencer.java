@@ -0,0 +1,122 @@
+package com.brokerage.matching;
+
+import com.lmax.disruptor.*;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Routes order commands to a single writer thread per asset. Assets are partitioned by name onto a fixed
+ * set of workers, each fed by its own pre-allocated ring buffer, so commands for one asset always execute
+ * sequentially in publication order while different assets run in parallel.
+ */
+@Component
+public class OrderSequencer {
+    private static final EventTranslatorTwoArg<OrderCommandEvent, Supplier<?>, CompletableFuture<Object>> TRANSLATOR =
+            (event, sequence, command, result) -> event.set(command, result);
+
+    @Value("${matching.partitions:0}")
+    private int partitionCount;
+
+    @Value("${matching.ring-buffer-size:1024}")
+    private int ringBufferSize;
+
+    @Value("${matching.wait-strategy:blocking}")
+    private String waitStrategy;
+
+    private Partition[] partitions;
+
+    @PostConstruct
+    public void start() {
+        int count = partitionCount > 0 ? partitionCount : Runtime.getRuntime().availableProcessors();
+        partitions = new Partition[count];
+        for (int i = 0; i < count; i++) {
+            partitions[i] = new Partition(i);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (Partition partition : partitions) {
+            partition.disruptor.shutdown();
+        }
+    }
+
+    public <T> T execute(String assetName, Supplier<T> command) {
+        Partition partition = partitionFor(assetName);
+        if (Thread.currentThread() == partition.thread) {
+            return command.get();
+        }
+
+        try {
+            return submit(assetName, command).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(String assetName, Supplier<T> command) {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        partitionFor(assetName).ringBuffer.publishEvent(TRANSLATOR, command, result);
+        @SuppressWarnings("unchecked")
+        CompletableFuture<T> typed = (CompletableFuture<T>) (CompletableFuture<?>) result;
+        return typed;
+    }
+
+    public void run(String assetName, Runnable command) {
+        execute(assetName, () -> {
+            command.run();
+            return null;
+        });
+    }
+
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    public int partitionOf(String assetName) {
+        return Math.floorMod(Objects.hashCode(assetName), partitions.length);
+    }
+
+    private Partition partitionFor(String assetName) {
+        return partitions[partitionOf(assetName)];
+    }
+
+    private WaitStrategy createWaitStrategy() {
+        return switch (waitStrategy) {
+            case "yielding" -> new YieldingWaitStrategy();
+            case "busy-spin" -> new BusySpinWaitStrategy();
+            case "sleeping" -> new SleepingWaitStrategy();
+            default -> new BlockingWaitStrategy();
+        };
+    }
+
+    private class Partition {
+        private final Disruptor<OrderCommandEvent> disruptor;
+        private final RingBuffer<OrderCommandEvent> ringBuffer;
+        private volatile Thread thread;
+
+        Partition(int index) {
+            disruptor = new Disruptor<>(OrderCommandEvent::new, ringBufferSize, runnable -> {
+                thread = new Thread(runnable, "order-sequencer-" + index);
+                return thread;
+            }, ProducerType.MULTI, createWaitStrategy());
+            disruptor.handleEventsWith((EventHandler<OrderCommandEvent>) (event, sequence, endOfBatch) -> event.execute());
+            ringBuffer = disruptor.start();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.brokerage.matching;
+
+import java.math.BigDecimal;
+
+public record PriceLevel(BigDecimal price, BigDecimal size) {
+}
@@ -0,0 +1,138 @@
+package com.brokerage.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point amount held as a {@code long} number of units at a given scale, e.g. 150.25 at scale 2 is 15025
+ * units. Sums are exact and products are rounded half-up to the scale of the left operand; both fail with an
+ * {@link ArithmeticException} instead of overflowing. Amounts of different scales cannot be added or compared.
+ * Used for exact, overflow-checked balance math, not for speed: entities and the order book still hold
+ * {@link BigDecimal}, and converting from them allocates about as much as the BigDecimal arithmetic it replaces.
+ */
+public final class Amount implements Comparable<Amount> {
+    public static final int DEFAULT_SCALE = 2;
+    public static final Amount ZERO = new Amount(0, DEFAULT_SCALE);
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final long units;
+    private final int scale;
+
+    private Amount(long units, int scale) {
+        this.units = units;
+        this.scale = scale;
+    }
+
+    public static Amount of(BigDecimal value) {
+        return of(value, DEFAULT_SCALE);
+    }
+
+    public static Amount of(BigDecimal value, int scale) {
+        checkScale(scale);
+        return new Amount(value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact(), scale);
+    }
+
+    public static Amount ofUnits(long units) {
+        return ofUnits(units, DEFAULT_SCALE);
+    }
+
+    public static Amount ofUnits(long units, int scale) {
+        checkScale(scale);
+        return new Amount(units, scale);
+    }
+
+    public long units() {
+        return units;
+    }
+
+    public int scale() {
+        return scale;
+    }
+
+    public Amount add(Amount other) {
+        checkSameScale(other);
+        return new Amount(Math.addExact(units, other.units), scale);
+    }
+
+    public Amount subtract(Amount other) {
+        checkSameScale(other);
+        return new Amount(Math.subtractExact(units, other.units), scale);
+    }
+
+    public Amount negate() {
+        return new Amount(Math.negateExact(units), scale);
+    }
+
+    public Amount multiply(Amount other) {
+        long product;
+        try {
+            product = Math.multiplyExact(units, other.units);
+        } catch (ArithmeticException overflow) {
+            // The unrounded product does not fit, the rounded one still may
+            return of(toBigDecimal().multiply(other.toBigDecimal()), scale);
+        }
+        return new Amount(divideHalfUp(product, POWERS_OF_TEN[other.scale]), scale);
+    }
+
+    public Amount min(Amount other) {
+        return compareTo(other) <= 0 ? this : other;
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, scale);
+    }
+
+    @Override
+    public int compareTo(Amount other) {
+        checkSameScale(other);
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Amount other && units == other.units && scale == other.scale;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(units) + scale;
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+
+    private void checkSameScale(Amount other) {
+        if (scale != other.scale) {
+            throw new ArithmeticException("Scale mismatch: " + scale + " and " + other.scale);
+        }
+    }
+
+    private static void checkScale(int scale) {
+        if (scale < 0 || scale >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("Unsupported scale: " + scale);
+        }
+    }
+}
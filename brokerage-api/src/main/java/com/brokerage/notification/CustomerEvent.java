@@ -0,0 +1,9 @@
+package com.brokerage.notification;
+
+record CustomerEvent(long customerId, String name, Object data) {
+    static final CustomerEvent HEARTBEAT = new CustomerEvent(0, null, null);
+
+    boolean isHeartbeat() {
+        return name == null;
+    }
+}
@@ -0,0 +1,158 @@
+package com.brokerage.notification;
+
+import com.brokerage.dto.BalanceEvent;
+import com.brokerage.dto.OrderEvent;
+import com.brokerage.entity.Order;
+import com.brokerage.money.Amount;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fans order and balance changes out to the customer's open event streams once the transaction that
+ * produced them commits. A subscriber whose buffer fills up is disconnected rather than slowing down the
+ * publisher; it is expected to reconnect and reload its orders and assets.
+ */
+@Slf4j
+@Component
+public class CustomerEventPublisher {
+    @Value("${events.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${events.sse.buffer-size:256}")
+    private int bufferSize;
+
+    private final Map<Long, Set<EventSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SseEmitter subscribe(long customerId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        EventSubscriber subscriber = new EventSubscriber(customerId, emitter, bufferSize);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        subscribers.compute(customerId, (id, set) -> {
+            Set<EventSubscriber> result = set != null ? set : ConcurrentHashMap.newKeySet();
+            result.add(subscriber);
+            return result;
+        });
+        return emitter;
+    }
+
+    public void publishOrder(Order order) {
+        long customerId = order.getCustomer().getId();
+        if (!subscribers.containsKey(customerId)) {
+            return;
+        }
+
+        OrderEvent event = OrderEvent.builder()
+                .orderId(order.getId())
+                .assetName(order.getAssetName())
+                .orderSide(order.getOrderSide())
+                .size(order.getSize())
+                .filledSize(order.getFilledSize())
+                .status(order.getStatus())
+                .build();
+        publishAfterCommit(new CustomerEvent(customerId, "order", event));
+    }
+
+    public void publishBalance(long customerId, String assetName, Amount sizeChange, Amount usableSizeChange) {
+        if (!subscribers.containsKey(customerId)) {
+            return;
+        }
+
+        BalanceEvent event = BalanceEvent.builder()
+                .assetName(assetName)
+                .sizeChange(sizeChange.toBigDecimal())
+                .usableSizeChange(usableSizeChange.toBigDecimal())
+                .build();
+        publishAfterCommit(new CustomerEvent(customerId, "balance", event));
+    }
+
+    @Scheduled(fixedDelayString = "${events.sse.heartbeat-ms:30000}")
+    public void heartbeat() {
+        for (Set<EventSubscriber> customerSubscribers : subscribers.values()) {
+            for (EventSubscriber subscriber : customerSubscribers) {
+                enqueue(subscriber, CustomerEvent.HEARTBEAT);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(EventSubscriber::close));
+        senders.shutdown();
+    }
+
+    private void publishAfterCommit(CustomerEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(event);
+            return;
+        }
+
+        PendingEvents pending = (PendingEvents) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEvents();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.events.add(event);
+    }
+
+    private void dispatch(CustomerEvent event) {
+        Set<EventSubscriber> customerSubscribers = subscribers.get(event.customerId());
+        if (customerSubscribers == null) {
+            return;
+        }
+        for (EventSubscriber subscriber : customerSubscribers) {
+            enqueue(subscriber, event);
+        }
+    }
+
+    private void enqueue(EventSubscriber subscriber, CustomerEvent event) {
+        if (!subscriber.offer(event)) {
+            log.debug("Closing event stream of customer {}: buffer full", subscriber.getCustomerId());
+            subscriber.close();
+            return;
+        }
+        if (subscriber.tryStartDrain()) {
+            senders.execute(subscriber::drain);
+        }
+    }
+
+    private void unsubscribe(EventSubscriber subscriber) {
+        subscriber.close();
+        subscribers.computeIfPresent(subscriber.getCustomerId(), (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private class PendingEvents implements TransactionSynchronization {
+        private final List<CustomerEvent> events = new ArrayList<>();
+
+        @Override
+        public void afterCommit() {
+            events.forEach(CustomerEventPublisher.this::dispatch);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CustomerEventPublisher.this);
+        }
+    }
+}
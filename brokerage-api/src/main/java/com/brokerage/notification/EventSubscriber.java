@@ -0,0 +1,68 @@
+package com.brokerage.notification;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One open event stream. Events wait in a bounded queue and are written by at most one drain task at a
+ * time, so an idle subscriber holds no thread.
+ */
+class EventSubscriber {
+    private final long customerId;
+    private final SseEmitter emitter;
+    private final ArrayBlockingQueue<CustomerEvent> queue;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    EventSubscriber(long customerId, SseEmitter emitter, int bufferSize) {
+        this.customerId = customerId;
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    long getCustomerId() {
+        return customerId;
+    }
+
+    boolean offer(CustomerEvent event) {
+        return !closed && queue.offer(event);
+    }
+
+    boolean tryStartDrain() {
+        return !queue.isEmpty() && draining.compareAndSet(false, true);
+    }
+
+    void drain() {
+        do {
+            CustomerEvent event;
+            while (!closed && (event = queue.poll()) != null) {
+                try {
+                    send(event);
+                } catch (IOException | IllegalStateException e) {
+                    close();
+                }
+            }
+            draining.set(false);
+        } while (!closed && tryStartDrain());
+    }
+
+    void close() {
+        if (!closed) {
+            closed = true;
+            queue.clear();
+            emitter.complete();
+        }
+    }
+
+    private void send(CustomerEvent event) throws IOException {
+        if (event.isHeartbeat()) {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        } else {
+            emitter.send(SseEmitter.event().name(event.name()).data(event.data(), MediaType.APPLICATION_JSON));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.brokerage.repository;
+
+import com.brokerage.instrument.InstrumentRegistry;
+import com.brokerage.service.BalanceChangeSet;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class AssetBatchRepository {
+    private static final String UPDATE_SQL =
+            "UPDATE assets SET size = size + ?, usable_size = usable_size + ?, version = version + 1 " +
+            "WHERE customer_id = ? AND instrument_id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO assets (customer_id, instrument_id, size, usable_size, version) VALUES (?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InstrumentRegistry instrumentRegistry;
+
+    public void applyChanges(BalanceChangeSet changeSet) {
+        if (changeSet.isEmpty()) {
+            return;
+        }
+
+        addBalances(changeSet.toBalanceRows());
+    }
+
+    /**
+     * Adds each row's size and usable size to the stored balance, creating the asset row when it does not exist.
+     */
+    public void addBalances(List<BalanceRow> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> updates = new ArrayList<>(changes.size());
+        for (BalanceRow change : changes) {
+            updates.add(new Object[]{change.size(), change.usableSize(), change.customerId(),
+                    instrumentRegistry.idOf(change.assetName())});
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                BalanceRow change = changes.get(i);
+                inserts.add(new Object[]{change.customerId(), instrumentRegistry.idOf(change.assetName()),
+                        change.size(), change.usableSize()});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+    }
+
+    /**
+     * Same as {@link #addBalances}, but inserts the missing rows one at a time and returns their IDs keyed by the
+     * index of the change.
+     */
+    public Map<Integer, Long> addBalancesReturningIds(List<BalanceRow> rows) {
+        List<Object[]> updates = new ArrayList<>(rows.size());
+        for (BalanceRow row : rows) {
+            updates.add(new Object[]{row.size(), row.usableSize(), row.customerId(),
+                    instrumentRegistry.idOf(row.assetName())});
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+
+        Map<Integer, Long> insertedIds = new HashMap<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                BalanceRow row = rows.get(i);
+                KeyHolder keyHolder = new GeneratedKeyHolder();
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[]{"id"});
+                    statement.setLong(1, row.customerId());
+                    statement.setInt(2, instrumentRegistry.idOf(row.assetName()));
+                    statement.setBigDecimal(3, row.size());
+                    statement.setBigDecimal(4, row.usableSize());
+                    return statement;
+                }, keyHolder);
+                insertedIds.put(i, keyHolder.getKey().longValue());
+            }
+        }
+        return insertedIds;
+    }
+
+    public record BalanceRow(long customerId, String assetName, BigDecimal size, BigDecimal usableSize) {
+    }
+}
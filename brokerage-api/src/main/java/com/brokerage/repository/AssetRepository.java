@@ -1,10 +1,18 @@
 package com.brokerage.repository;
 
+import com.brokerage.dto.AssetResponse;
 import com.brokerage.entity.Asset;
 import com.brokerage.entity.Customer;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,5 +20,33 @@ import java.util.Optional;
 public interface AssetRepository extends JpaRepository<Asset, Long> {
     Optional<Asset> findByCustomerAndAssetName(Customer customer, String assetName);
     List<Asset> findByCustomer(Customer customer);
-    List<Asset> findByCustomerAndAssetNameContainingIgnoreCase(Customer customer, String assetName);
+
+    @Query("SELECT new com.brokerage.dto.AssetResponse(a.id, a.customer.id, a.assetName, a.size, a.usableSize) " +
+           "FROM Asset a WHERE a.customer.id = :customerId")
+    List<AssetResponse> findResponsesByCustomerId(@Param("customerId") Long customerId);
+
+    @Query("SELECT new com.brokerage.dto.AssetResponse(a.id, a.customer.id, a.assetName, a.size, a.usableSize) " +
+           "FROM Asset a WHERE a.customer.id = :customerId " +
+           "AND a.assetName IN :assetNames")
+    List<AssetResponse> findResponsesByCustomerIdAndAssetNameIn(@Param("customerId") Long customerId,
+                                                                @Param("assetNames") Collection<String> assetNames);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Asset a WHERE a.customer.id IN :customerIds ORDER BY a.id")
+    List<Asset> lockByCustomerIds(@Param("customerIds") Collection<Long> customerIds);
+
+    @Modifying
+    @Query("UPDATE Asset a SET a.size = :size, a.usableSize = :usableSize, a.version = a.version + 1 " +
+           "WHERE a.id = :id AND a.version = :version")
+    int compareAndSetBalance(@Param("id") Long id,
+                             @Param("version") Long version,
+                             @Param("size") BigDecimal size,
+                             @Param("usableSize") BigDecimal usableSize);
+
+    @Modifying
+    @Query("UPDATE Asset a SET a.size = a.size + :sizeChange, a.usableSize = a.usableSize + :usableSizeChange, " +
+           "a.version = a.version + 1 WHERE a.id = :id")
+    int adjustBalance(@Param("id") Long id,
+                      @Param("sizeChange") BigDecimal sizeChange,
+                      @Param("usableSizeChange") BigDecimal usableSizeChange);
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.brokerage.repository;
+
+import com.brokerage.dto.AssetResponse;
+import com.brokerage.instrument.InstrumentRegistry;
+import com.brokerage.repository.AssetBatchRepository.BalanceRow;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads and writes {@code balance_entries}. A balance is its {@code assets} row plus the sum of its entries that
+ * have no checkpoint yet, read in a single statement so that a concurrent checkpoint is seen either completely or
+ * not at all.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BalanceEntryRepository {
+    private static final String INSERT_SQL =
+            "INSERT INTO balance_entries (customer_id, instrument_id, size_change, usable_size_change, create_date) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_ASSET_SQL =
+            "INSERT INTO assets (customer_id, instrument_id, size, usable_size, version) " +
+            "SELECT CAST(? AS BIGINT), CAST(? AS INTEGER), 0, 0, 0 " +
+            "WHERE NOT EXISTS (SELECT 1 FROM assets WHERE customer_id = ? AND instrument_id = ?)";
+    private static final String BALANCES_SQL =
+            "SELECT a.id, a.customer_id, a.instrument_id, " +
+            "a.size + COALESCE(SUM(e.size_change), 0) AS size, " +
+            "a.usable_size + COALESCE(SUM(e.usable_size_change), 0) AS usable_size " +
+            "FROM assets a LEFT JOIN balance_entries e ON e.customer_id = a.customer_id " +
+            "AND e.instrument_id = a.instrument_id AND e.checkpoint_id IS NULL ";
+    private static final String GROUP_BY_SQL =
+            " GROUP BY a.id, a.customer_id, a.instrument_id, a.size, a.usable_size";
+    private static final String MARK_SQL =
+            "UPDATE balance_entries SET checkpoint_id = ? WHERE checkpoint_id IS NULL";
+    private static final String FOLD_SQL =
+            "UPDATE assets a SET " +
+            "size = a.size + (SELECT SUM(e.size_change) FROM balance_entries e WHERE e.checkpoint_id = ? " +
+            "AND e.customer_id = a.customer_id AND e.instrument_id = a.instrument_id), " +
+            "usable_size = a.usable_size + (SELECT SUM(e.usable_size_change) FROM balance_entries e " +
+            "WHERE e.checkpoint_id = ? AND e.customer_id = a.customer_id AND e.instrument_id = a.instrument_id), " +
+            "version = a.version + 1 " +
+            "WHERE EXISTS (SELECT 1 FROM balance_entries e WHERE e.checkpoint_id = ? " +
+            "AND e.customer_id = a.customer_id AND e.instrument_id = a.instrument_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InstrumentRegistry instrumentRegistry;
+
+    @PostConstruct
+    void createCheckpointSequence() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS balance_checkpoints_seq");
+    }
+
+    public void append(List<BalanceRow> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> inserts = new ArrayList<>(entries.size());
+        for (BalanceRow entry : entries) {
+            inserts.add(new Object[]{entry.customerId(), instrumentRegistry.idOf(entry.assetName()),
+                    entry.size(), entry.usableSize(), now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+    }
+
+    /**
+     * Creates an empty asset row for every row of {@code balances} that has none, leaving existing rows untouched.
+     */
+    public void ensureAssets(List<BalanceRow> balances) {
+        List<Object[]> inserts = new ArrayList<>(balances.size());
+        for (BalanceRow balance : balances) {
+            int instrumentId = instrumentRegistry.idOf(balance.assetName());
+            inserts.add(new Object[]{balance.customerId(), instrumentId, balance.customerId(), instrumentId});
+        }
+        jdbcTemplate.batchUpdate(INSERT_ASSET_SQL, inserts);
+    }
+
+    public Optional<BalanceRow> findBalance(long customerId, String assetName) {
+        List<BalanceRow> balances = jdbcTemplate.query(
+                BALANCES_SQL + "WHERE a.customer_id = ? AND a.instrument_id = ?" + GROUP_BY_SQL,
+                (rs, rowNum) -> new BalanceRow(customerId, assetName,
+                        rs.getBigDecimal("size"), rs.getBigDecimal("usable_size")),
+                customerId, instrumentRegistry.find(assetName).orElse(InstrumentRegistry.UNKNOWN_ID));
+        return balances.stream().findFirst();
+    }
+
+    public List<AssetResponse> findBalances(long customerId) {
+        return jdbcTemplate.query(BALANCES_SQL + "WHERE a.customer_id = ?" + GROUP_BY_SQL + " ORDER BY a.id",
+                (rs, rowNum) -> new AssetResponse(rs.getLong("id"), rs.getLong("customer_id"),
+                        instrumentRegistry.nameOf(rs.getInt("instrument_id")),
+                        rs.getBigDecimal("size"), rs.getBigDecimal("usable_size")),
+                customerId);
+    }
+
+    /**
+     * Folds every entry without a checkpoint into its asset row and returns the number of entries folded. Entries
+     * are marked first and only the marked ones are folded, so an entry committed while the checkpoint runs is
+     * left for the next one instead of being marked without being folded. Checkpoint IDs come from a sequence, so
+     * two checkpoints never share one.
+     */
+    public int checkpoint() {
+        Long checkpointId = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR balance_checkpoints_seq", Long.class);
+        int marked = jdbcTemplate.update(MARK_SQL, checkpointId);
+        if (marked > 0) {
+            jdbcTemplate.update(FOLD_SQL, checkpointId, checkpointId, checkpointId);
+        }
+        return marked;
+    }
+}
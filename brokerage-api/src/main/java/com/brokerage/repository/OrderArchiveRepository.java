@@ -0,0 +1,134 @@
+package com.brokerage.repository;
+
+import com.brokerage.dto.OrderCursor;
+import com.brokerage.dto.OrderResponse;
+import com.brokerage.entity.Side;
+import com.brokerage.entity.Status;
+import com.brokerage.instrument.InstrumentRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Moves terminal orders from {@code orders} to {@code orders_archive} and lists archived orders with the same
+ * filters and ordering as {@link OrderRepository}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderArchiveRepository {
+    private static final String COLUMNS =
+            "id, customer_id, instrument_id, order_side, size, price, filled_size, status, create_date";
+    private static final String SELECT_SQL =
+            "SELECT " + COLUMNS + " FROM orders_archive WHERE customer_id = ? AND create_date BETWEEN ? AND ?";
+    private static final String ORDER_BY_SQL = " ORDER BY create_date, id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InstrumentRegistry instrumentRegistry;
+
+    /**
+     * Up to {@code limit} MATCHED or CANCELED orders created before {@code cutoff}, as (createDate, id) pairs.
+     */
+    public List<OrderCursor> findArchivable(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, create_date FROM orders WHERE status IN (?, ?) AND create_date < ? LIMIT ?",
+                (rs, rowNum) -> new OrderCursor(rs.getTimestamp("create_date").toLocalDateTime(), rs.getLong("id")),
+                Status.MATCHED.name(), Status.CANCELED.name(), cutoff, limit);
+    }
+
+    /**
+     * Copies the orders to the archive and deletes them from {@code orders}. Only valid for orders in a terminal
+     * status, which can no longer change between the two statements.
+     */
+    public int archive(List<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        String in = " WHERE id IN (" + String.join(", ", Collections.nCopies(orderIds.size(), "?")) + ")";
+        Object[] ids = orderIds.toArray();
+        int copied = jdbcTemplate.update(
+                "INSERT INTO orders_archive (" + COLUMNS + ") SELECT " + COLUMNS + " FROM orders" + in, ids);
+        int deleted = jdbcTemplate.update("DELETE FROM orders" + in, ids);
+        if (copied != deleted) {
+            throw new IllegalStateException("Archived " + copied + " orders but deleted " + deleted);
+        }
+        return deleted;
+    }
+
+    public boolean existsByIdAndCustomerId(long orderId, long customerId) {
+        return !jdbcTemplate.queryForList("SELECT 1 FROM orders_archive WHERE id = ? AND customer_id = ?",
+                Integer.class, orderId, customerId).isEmpty();
+    }
+
+    public Optional<LocalDateTime> findNewestCreateDate() {
+        Timestamp newest = jdbcTemplate.queryForObject(
+                "SELECT MAX(create_date) FROM orders_archive", Timestamp.class);
+        return Optional.ofNullable(newest).map(Timestamp::toLocalDateTime);
+    }
+
+    public List<OrderResponse> findResponses(Long customerId, LocalDateTime startDate, LocalDateTime endDate,
+                                             Status status) {
+        Query query = query(customerId, startDate, endDate, status);
+        return jdbcTemplate.query(query.sql.toString(), rowMapper(), query.params.toArray());
+    }
+
+    /**
+     * Up to {@code limit} orders after {@code after} (or from the start when it is {@code null}), ordered by
+     * creation date and ID.
+     */
+    public List<OrderResponse> findPage(Long customerId, LocalDateTime startDate, LocalDateTime endDate,
+                                        Status status, OrderCursor after, int limit) {
+        Query query = query(customerId, startDate, endDate, status);
+        if (after != null) {
+            query.sql.append(" AND (create_date > ? OR (create_date = ? AND id > ?))");
+            query.params.addAll(List.of(after.createDate(), after.createDate(), after.id()));
+        }
+        query.sql.append(ORDER_BY_SQL).append(" LIMIT ?");
+        query.params.add(limit);
+        return jdbcTemplate.query(query.sql.toString(), rowMapper(), query.params.toArray());
+    }
+
+    public Stream<OrderResponse> stream(Long customerId, LocalDateTime startDate, LocalDateTime endDate,
+                                        Status status) {
+        Query query = query(customerId, startDate, endDate, status);
+        query.sql.append(ORDER_BY_SQL);
+        return jdbcTemplate.queryForStream(query.sql.toString(), rowMapper(), query.params.toArray());
+    }
+
+    private static Query query(Long customerId, LocalDateTime startDate, LocalDateTime endDate, Status status) {
+        Query query = new Query();
+        query.sql.append(SELECT_SQL);
+        query.params.addAll(List.of(customerId, startDate, endDate));
+        if (status != null) {
+            query.sql.append(" AND status = ?");
+            query.params.add(status.name());
+        }
+        return query;
+    }
+
+    private RowMapper<OrderResponse> rowMapper() {
+        return (rs, rowNum) -> new OrderResponse(
+                rs.getLong("id"),
+                rs.getLong("customer_id"),
+                instrumentRegistry.nameOf(rs.getInt("instrument_id")),
+                Side.valueOf(rs.getString("order_side")),
+                rs.getBigDecimal("size"),
+                rs.getBigDecimal("price"),
+                rs.getBigDecimal("filled_size"),
+                Status.valueOf(rs.getString("status")),
+                rs.getTimestamp("create_date").toLocalDateTime());
+    }
+
+    private static final class Query {
+        private final StringBuilder sql = new StringBuilder();
+        private final List<Object> params = new ArrayList<>();
+    }
+}
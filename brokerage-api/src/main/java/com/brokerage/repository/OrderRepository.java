@@ -1,16 +1,23 @@
 package com.brokerage.repository;
 
+import com.brokerage.dto.OrderResponse;
 import com.brokerage.entity.Customer;
 import com.brokerage.entity.Order;
 import com.brokerage.entity.Status;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -24,7 +31,62 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
                                                      @Param("endDate") LocalDateTime endDate,
                                                      @Param("status") Status status);
     
+    @Query("SELECT new com.brokerage.dto.OrderResponse(o.id, o.customer.id, o.assetName, o.orderSide, o.size, " +
+           "o.price, o.filledSize, o.status, o.createDate) FROM Order o WHERE o.customer.id = :customerId " +
+           "AND o.createDate BETWEEN :startDate AND :endDate " +
+           "AND (:status IS NULL OR o.status = :status)")
+    List<OrderResponse> findResponsesByCustomerIdAndDateRangeAndStatus(@Param("customerId") Long customerId,
+                                                                       @Param("startDate") LocalDateTime startDate,
+                                                                       @Param("endDate") LocalDateTime endDate,
+                                                                       @Param("status") Status status);
+
+    @Query("SELECT new com.brokerage.dto.OrderResponse(o.id, o.customer.id, o.assetName, o.orderSide, o.size, " +
+           "o.price, o.filledSize, o.status, o.createDate) FROM Order o WHERE o.customer.id = :customerId " +
+           "AND o.createDate BETWEEN :startDate AND :endDate " +
+           "AND (:status IS NULL OR o.status = :status) " +
+           "ORDER BY o.createDate ASC, o.id ASC")
+    List<OrderResponse> findFirstPage(@Param("customerId") Long customerId,
+                              @Param("startDate") LocalDateTime startDate,
+                              @Param("endDate") LocalDateTime endDate,
+                              @Param("status") Status status,
+                              Pageable pageable);
+
+    @Query("SELECT new com.brokerage.dto.OrderResponse(o.id, o.customer.id, o.assetName, o.orderSide, o.size, " +
+           "o.price, o.filledSize, o.status, o.createDate) FROM Order o WHERE o.customer.id = :customerId " +
+           "AND o.createDate BETWEEN :startDate AND :endDate " +
+           "AND (:status IS NULL OR o.status = :status) " +
+           "AND (o.createDate > :afterCreateDate OR (o.createDate = :afterCreateDate AND o.id > :afterId)) " +
+           "ORDER BY o.createDate ASC, o.id ASC")
+    List<OrderResponse> findPageAfter(@Param("customerId") Long customerId,
+                              @Param("startDate") LocalDateTime startDate,
+                              @Param("endDate") LocalDateTime endDate,
+                              @Param("status") Status status,
+                              @Param("afterCreateDate") LocalDateTime afterCreateDate,
+                              @Param("afterId") Long afterId,
+                              Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.brokerage.dto.OrderResponse(o.id, o.customer.id, o.assetName, o.orderSide, o.size, " +
+           "o.price, o.filledSize, o.status, o.createDate) FROM Order o WHERE o.customer.id = :customerId " +
+           "AND o.createDate BETWEEN :startDate AND :endDate " +
+           "AND (:status IS NULL OR o.status = :status) " +
+           "ORDER BY o.createDate ASC, o.id ASC")
+    Stream<OrderResponse> streamByCustomerAndDateRangeAndStatus(@Param("customerId") Long customerId,
+                                                       @Param("startDate") LocalDateTime startDate,
+                                                       @Param("endDate") LocalDateTime endDate,
+                                                       @Param("status") Status status);
+
     Optional<Order> findByIdAndCustomer(Long id, Customer customer);
+
+    @Query("SELECT o.assetName FROM Order o WHERE o.id = :id AND o.customer.id = :customerId")
+    Optional<String> findAssetNameByIdAndCustomerId(@Param("id") Long id, @Param("customerId") Long customerId);
     
     List<Order> findByStatus(Status status);
+
+    @Query("SELECT o.id, o.assetName FROM Order o WHERE o.id IN :ids")
+    List<Object[]> findAssetNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    List<Order> findByStatusOrderByCreateDateAscIdAsc(Status status);
+
+    List<Order> findByAssetNameAndStatusOrderByCreateDateAscIdAsc(String assetName, Status status);
 }
\ No newline at end of file
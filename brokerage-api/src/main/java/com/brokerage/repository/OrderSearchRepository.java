@@ -0,0 +1,148 @@
+package com.brokerage.repository;
+
+import com.brokerage.dto.OrderCursor;
+import com.brokerage.dto.OrderResponse;
+import com.brokerage.dto.OrderSearchCriteria;
+import com.brokerage.entity.Side;
+import com.brokerage.entity.Status;
+import com.brokerage.instrument.InstrumentRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cross-customer order search. Only the filters that are set end up in the WHERE clause, instead of the
+ * {@code :param IS NULL OR ...} form of {@link OrderRepository}, so that the planner can pick the
+ * {@code orders} index whose leading columns match them. The {@code *Archive} variants run the same query against
+ * {@code orders_archive}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderSearchRepository {
+    private static final String SELECT_SQL =
+            "SELECT id, customer_id, instrument_id, order_side, size, price, filled_size, status, create_date FROM ";
+    private static final String ORDERS = "orders";
+    private static final String ARCHIVE = "orders_archive";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InstrumentRegistry instrumentRegistry;
+
+    /**
+     * Returns up to {@code limit} matching orders after {@code after} (or from the start when it is {@code null}),
+     * ordered by creation date and ID.
+     */
+    public List<OrderResponse> search(Integer instrumentId, OrderSearchCriteria criteria, OrderCursor after,
+                                      int limit) {
+        return search(ORDERS, instrumentId, criteria, after, limit);
+    }
+
+    public List<OrderResponse> searchArchive(Integer instrumentId, OrderSearchCriteria criteria, OrderCursor after,
+                                             int limit) {
+        return search(ARCHIVE, instrumentId, criteria, after, limit);
+    }
+
+    /**
+     * Counts matching orders, stopping at {@code cap} so that a broad filter costs at most {@code cap} index
+     * entries instead of a scan of the whole table.
+     */
+    public long count(Integer instrumentId, OrderSearchCriteria criteria, long cap) {
+        return count(ORDERS, instrumentId, criteria, cap);
+    }
+
+    public long countArchive(Integer instrumentId, OrderSearchCriteria criteria, long cap) {
+        return count(ARCHIVE, instrumentId, criteria, cap);
+    }
+
+    public long count(Integer instrumentId, OrderSearchCriteria criteria) {
+        return count(ORDERS, instrumentId, criteria);
+    }
+
+    public long countArchive(Integer instrumentId, OrderSearchCriteria criteria) {
+        return count(ARCHIVE, instrumentId, criteria);
+    }
+
+    private List<OrderResponse> search(String table, Integer instrumentId, OrderSearchCriteria criteria,
+                                       OrderCursor after, int limit) {
+        Query query = where(instrumentId, criteria);
+        if (after != null) {
+            query.and("(create_date > ? OR (create_date = ? AND id > ?))",
+                    after.createDate(), after.createDate(), after.id());
+        }
+        query.params.add(limit);
+        return jdbcTemplate.query(SELECT_SQL + table + query.sql + " ORDER BY create_date, id LIMIT ?",
+                rowMapper(), query.params.toArray());
+    }
+
+    private long count(String table, Integer instrumentId, OrderSearchCriteria criteria, long cap) {
+        Query query = where(instrumentId, criteria);
+        query.params.add(cap);
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT 1 FROM " + table + query.sql + " LIMIT ?) capped",
+                Long.class, query.params.toArray());
+        return count != null ? count : 0;
+    }
+
+    private long count(String table, Integer instrumentId, OrderSearchCriteria criteria) {
+        Query query = where(instrumentId, criteria);
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + query.sql,
+                Long.class, query.params.toArray());
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Builds the predicates in the column order of the {@code orders} indexes; a {@code null}
+     * {@code instrumentId} matches every instrument.
+     */
+    private static Query where(Integer instrumentId, OrderSearchCriteria criteria) {
+        Query query = new Query();
+        if (instrumentId != null) {
+            query.and("instrument_id = ?", instrumentId);
+        }
+        if (criteria.status() != null) {
+            query.and("status = ?", criteria.status().name());
+        }
+        if (criteria.orderSide() != null) {
+            query.and("order_side = ?", criteria.orderSide().name());
+        }
+        if (criteria.startDate() != null) {
+            query.and("create_date >= ?", criteria.startDate());
+        }
+        if (criteria.endDate() != null) {
+            query.and("create_date <= ?", criteria.endDate());
+        }
+        if (criteria.minPrice() != null) {
+            query.and("price >= ?", criteria.minPrice());
+        }
+        if (criteria.maxPrice() != null) {
+            query.and("price <= ?", criteria.maxPrice());
+        }
+        return query;
+    }
+
+    private RowMapper<OrderResponse> rowMapper() {
+        return (rs, rowNum) -> new OrderResponse(
+                rs.getLong("id"),
+                rs.getLong("customer_id"),
+                instrumentRegistry.nameOf(rs.getInt("instrument_id")),
+                Side.valueOf(rs.getString("order_side")),
+                rs.getBigDecimal("size"),
+                rs.getBigDecimal("price"),
+                rs.getBigDecimal("filled_size"),
+                Status.valueOf(rs.getString("status")),
+                rs.getTimestamp("create_date").toLocalDateTime());
+    }
+
+    private static final class Query {
+        private final StringBuilder sql = new StringBuilder();
+        private final List<Object> params = new ArrayList<>();
+
+        private void and(String predicate, Object... values) {
+            sql.append(sql.isEmpty() ? " WHERE " : " AND ").append(predicate);
+            params.addAll(List.of(values));
+        }
+    }
+}
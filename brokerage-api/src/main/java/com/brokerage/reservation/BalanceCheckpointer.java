@@ -0,0 +1,67 @@
+package com.brokerage.reservation;
+
+import com.brokerage.repository.BalanceEntryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Folds balance entries into the asset rows every {@code balance.entries.checkpoint-interval-ms} when
+ * {@code balance.locking-strategy=entries}. A checkpoint commits in one transaction, so a failed one leaves the
+ * entries to the next. Checkpoints run one at a time; a scheduled one is skipped while another is still running.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BalanceCheckpointer {
+    private final BalanceReservationService balanceReservationService;
+    private final BalanceEntryRepository balanceEntryRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+
+    @Scheduled(fixedDelayString = "${balance.entries.checkpoint-interval-ms:1000}")
+    public void scheduledCheckpoint() {
+        if (balanceReservationService.getLockingMode() != LockingMode.ENTRIES || !checkpointLock.tryLock()) {
+            return;
+        }
+        try {
+            runCheckpoint();
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    public int checkpoint() {
+        checkpointLock.lock();
+        try {
+            return runCheckpoint();
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void checkpointOnShutdown() {
+        if (balanceReservationService.getLockingMode() == LockingMode.ENTRIES) {
+            // Waits for a scheduled checkpoint that is still running
+            checkpoint();
+        }
+    }
+
+    private int runCheckpoint() {
+        try {
+            Integer folded = new TransactionTemplate(transactionManager)
+                    .execute(status -> balanceEntryRepository.checkpoint());
+            return folded != null ? folded : 0;
+        } catch (RuntimeException e) {
+            log.warn("Balance checkpoint failed, will retry", e);
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.brokerage.reservation;
+
+import com.brokerage.entity.Asset;
+import com.brokerage.exception.InsufficientBalanceException;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+/**
+ * Applies a balance change to a managed {@link Asset} so that concurrent changes to the same row can
+ * neither be lost nor drive {@code usableSize} below zero. On return the asset reflects the new balance.
+ */
+public interface BalanceLockingStrategy {
+    void updateBalance(Asset asset, BigDecimal sizeChange, BigDecimal usableSizeChange);
+
+    /**
+     * Called with every customer whose balances a transaction will change, before it changes the first one, so that
+     * a strategy can take all their locks up front in a fixed order. By default locks are taken by
+     * {@link #updateBalance}.
+     */
+    default void lockCustomers(Collection<Long> customerIds) {
+    }
+
+    static void checkUsable(Asset asset, BigDecimal newUsableSize) {
+        if (newUsableSize.signum() < 0) {
+            throw new InsufficientBalanceException("Insufficient " + asset.getAssetName() + " balance");
+        }
+    }
+}
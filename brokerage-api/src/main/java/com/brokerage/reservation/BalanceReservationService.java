@@ -0,0 +1,55 @@
+package com.brokerage.reservation;
+
+import com.brokerage.entity.Asset;
+import com.brokerage.repository.AssetBatchRepository.BalanceRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class BalanceReservationService {
+    private final Map<LockingMode, BalanceLockingStrategy> strategies = new EnumMap<>(LockingMode.class);
+    private final LockingMode lockingMode;
+    private final EntryBalanceLockingStrategy entries;
+
+    public BalanceReservationService(PessimisticBalanceLockingStrategy pessimistic,
+                                     OptimisticBalanceLockingStrategy optimistic,
+                                     StripedBalanceLockingStrategy striped,
+                                     EntryBalanceLockingStrategy entries,
+                                     @Value("${balance.locking-strategy:pessimistic}") String lockingMode) {
+        strategies.put(LockingMode.PESSIMISTIC, pessimistic);
+        strategies.put(LockingMode.OPTIMISTIC, optimistic);
+        strategies.put(LockingMode.STRIPED, striped);
+        strategies.put(LockingMode.ENTRIES, entries);
+        this.entries = entries;
+        this.lockingMode = LockingMode.valueOf(lockingMode.trim().toUpperCase());
+    }
+
+    public void updateBalance(Asset asset, BigDecimal sizeChange, BigDecimal usableSizeChange) {
+        updateBalance(lockingMode, asset, sizeChange, usableSizeChange);
+    }
+
+    public void updateBalance(LockingMode mode, Asset asset, BigDecimal sizeChange, BigDecimal usableSizeChange) {
+        strategies.get(mode).updateBalance(asset, sizeChange, usableSizeChange);
+    }
+
+    public void lockCustomers(Collection<Long> customerIds) {
+        strategies.get(lockingMode).lockCustomers(customerIds);
+    }
+
+    /**
+     * Appends balance entries without checking the balances; only valid in {@link LockingMode#ENTRIES} mode.
+     */
+    public void appendEntries(List<BalanceRow> changes) {
+        entries.append(changes);
+    }
+
+    public LockingMode getLockingMode() {
+        return lockingMode;
+    }
+}
@@ -0,0 +1,87 @@
+package com.brokerage.reservation;
+
+import com.brokerage.repository.AssetBatchRepository.BalanceRow;
+import com.brokerage.service.BalanceChangeSet.BalanceKey;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Committed balances of {@link EntryBalanceLockingStrategy}, so that a debit checks the balance without summing the
+ * entries not checkpointed yet. A balance is read from the database once, the first time it is debited, and from
+ * then on kept up to date by the entries of every transaction that commits. Each balance counts the transactions
+ * between writing their entries and completing. A balance is only returned while none of them is running, and a
+ * database read only counts if none was running at any point during it, so a commit is neither missed nor counted
+ * twice. Assumes this instance writes all entries.
+ */
+class CommittedBalances {
+    private final Map<BalanceKey, Balance> balances = new ConcurrentHashMap<>();
+
+    /**
+     * The committed balance, reading it with {@code loader} if it is not known yet. The caller must hold the
+     * balance's debit lock, so that no other transaction can lower it meanwhile, and must not be committing itself.
+     */
+    BalanceRow get(BalanceKey key, Supplier<BalanceRow> loader) {
+        Balance balance = balances.computeIfAbsent(key, k -> new Balance());
+        while (true) {
+            long seen;
+            synchronized (balance) {
+                seen = balance.committing > 0 ? -1 : balance.completed;
+                if (seen >= 0 && balance.loaded) {
+                    return new BalanceRow(key.customerId(), key.assetName(), balance.size, balance.usableSize);
+                }
+            }
+            if (seen < 0) {
+                // A transaction is between writing its entries and completing; wait until it is done
+                LockSupport.parkNanos(10_000);
+                continue;
+            }
+
+            BalanceRow row = loader.get();
+            synchronized (balance) {
+                if (balance.committing == 0 && balance.completed == seen) {
+                    balance.size = row.size();
+                    balance.usableSize = row.usableSize();
+                    balance.loaded = true;
+                    return row;
+                }
+            }
+        }
+    }
+
+    /**
+     * Called before a transaction writes its entries.
+     */
+    void committing(BalanceKey key) {
+        Balance balance = balances.computeIfAbsent(key, k -> new Balance());
+        synchronized (balance) {
+            balance.committing++;
+        }
+    }
+
+    /**
+     * Called once the transaction that wrote {@code net} has completed, with whether it committed.
+     */
+    void completed(BalanceKey key, BigDecimal[] net, boolean committed) {
+        Balance balance = balances.get(key);
+        synchronized (balance) {
+            balance.committing--;
+            balance.completed++;
+            if (committed && balance.loaded) {
+                balance.size = balance.size.add(net[0]);
+                balance.usableSize = balance.usableSize.add(net[1]);
+            }
+        }
+    }
+
+    private static final class Balance {
+        private BigDecimal size = BigDecimal.ZERO;
+        private BigDecimal usableSize = BigDecimal.ZERO;
+        private boolean loaded;
+        private int committing;
+        private long completed;
+    }
+}
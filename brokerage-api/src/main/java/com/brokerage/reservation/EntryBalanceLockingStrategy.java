@@ -0,0 +1,153 @@
+package com.brokerage.reservation;
+
+import com.brokerage.entity.Asset;
+import com.brokerage.repository.AssetBatchRepository.BalanceRow;
+import com.brokerage.repository.BalanceEntryRepository;
+import com.brokerage.service.BalanceChangeSet.BalanceKey;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Records every balance change as a {@code balance_entries} row instead of updating the asset row. Credits take no
+ * lock at all; debits take the customer's in-process lock stripe of {@link StripedBalanceLockingStrategy} until the
+ * transaction completes, so that concurrent debits cannot overdraw a balance, and check it against
+ * {@link CommittedBalances} instead of reading the database. The entries of a transaction are inserted in one batch
+ * when it commits, and {@link BalanceCheckpointer} periodically folds them into the asset rows. The managed
+ * {@link Asset} is updated in memory and marked read-only so that it is not written back. Like the striped
+ * strategy, only valid for a single application instance.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntryBalanceLockingStrategy implements BalanceLockingStrategy {
+    private final EntityManager entityManager;
+    private final BalanceEntryRepository balanceEntryRepository;
+    private final StripedBalanceLockingStrategy customerLocks;
+    private final CommittedBalances committedBalances = new CommittedBalances();
+
+    @Override
+    public void updateBalance(Asset asset, BigDecimal sizeChange, BigDecimal usableSizeChange) {
+        long customerId = asset.getCustomer().getId();
+        String assetName = asset.getAssetName();
+        BalanceKey key = new BalanceKey(customerId, assetName);
+        PendingEntries pending = pendingEntries();
+
+        ReentrantLock lock = null;
+        if (usableSizeChange.signum() < 0) {
+            lock = customerLocks.acquire(customerId);
+            if (pending != null) {
+                customerLocks.releaseOnCompletion(lock);
+            }
+        }
+        try {
+            BalanceRow balance = committedBalances.get(key, () -> balanceEntryRepository.findBalance(customerId, assetName)
+                    .orElseThrow(() -> new IllegalStateException("Asset " + asset.getId() + " has no row")));
+            BigDecimal size = balance.size().add(sizeChange);
+            BigDecimal newUsableSize = balance.usableSize().add(usableSizeChange);
+            if (pending != null) {
+                BigDecimal[] unwritten = pending.net.get(key);
+                if (unwritten != null) {
+                    size = size.add(unwritten[0]);
+                    newUsableSize = newUsableSize.add(unwritten[1]);
+                }
+            }
+            BalanceLockingStrategy.checkUsable(asset, newUsableSize);
+
+            append(pending, new BalanceRow(customerId, assetName, sizeChange, usableSizeChange));
+            if (entityManager.contains(asset)) {
+                entityManager.unwrap(Session.class).setReadOnly(asset, true);
+            }
+            asset.setSize(size);
+            asset.setUsableSize(newUsableSize);
+        } finally {
+            if (lock != null && pending == null) {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void lockCustomers(Collection<Long> customerIds) {
+        customerLocks.lockCustomers(customerIds);
+    }
+
+    /**
+     * Appends changes that need no balance check, such as settlement, creating the asset rows that do not exist yet.
+     */
+    public void append(List<BalanceRow> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        balanceEntryRepository.ensureAssets(changes);
+        PendingEntries pending = pendingEntries();
+        for (BalanceRow change : changes) {
+            append(pending, change);
+        }
+    }
+
+    private void append(PendingEntries pending, BalanceRow entry) {
+        if (pending == null) {
+            // Written on its own, so it commits right away
+            BalanceKey key = new BalanceKey(entry.customerId(), entry.assetName());
+            boolean written = false;
+            committedBalances.committing(key);
+            try {
+                balanceEntryRepository.append(List.of(entry));
+                written = true;
+            } finally {
+                committedBalances.completed(key, new BigDecimal[]{entry.size(), entry.usableSize()}, written);
+            }
+            return;
+        }
+        pending.entries.add(entry);
+        BigDecimal[] net = pending.net.computeIfAbsent(new BalanceKey(entry.customerId(), entry.assetName()),
+                key -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+        net[0] = net[0].add(entry.size());
+        net[1] = net[1].add(entry.usableSize());
+    }
+
+    private PendingEntries pendingEntries() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        PendingEntries pending = (PendingEntries) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEntries();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private class PendingEntries implements TransactionSynchronization {
+        private final List<BalanceRow> entries = new ArrayList<>();
+        private final Map<BalanceKey, BigDecimal[]> net = new HashMap<>();
+        private boolean committing;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            committing = true;
+            net.keySet().forEach(committedBalances::committing);
+            balanceEntryRepository.append(entries);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(EntryBalanceLockingStrategy.this);
+            if (committing) {
+                net.forEach((key, change) -> committedBalances.completed(key, change, status == STATUS_COMMITTED));
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.brokerage.reservation;
+
+public enum LockingMode {
+    PESSIMISTIC,
+    OPTIMISTIC,
+    STRIPED,
+    ENTRIES
+}
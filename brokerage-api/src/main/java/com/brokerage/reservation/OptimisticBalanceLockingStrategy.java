@@ -0,0 +1,49 @@
+package com.brokerage.reservation;
+
+import com.brokerage.entity.Asset;
+import com.brokerage.exception.BalanceContentionException;
+import com.brokerage.repository.AssetRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+@Component
+@RequiredArgsConstructor
+public class OptimisticBalanceLockingStrategy implements BalanceLockingStrategy {
+    private final EntityManager entityManager;
+    private final AssetRepository assetRepository;
+
+    @Value("${balance.optimistic.max-retries:10}")
+    private int maxRetries;
+
+    @Value("${balance.optimistic.backoff-micros:50}")
+    private long backoffMicros;
+
+    @Override
+    public void updateBalance(Asset asset, BigDecimal sizeChange, BigDecimal usableSizeChange) {
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            entityManager.refresh(asset);
+
+            BigDecimal newUsableSize = asset.getUsableSize().add(usableSizeChange);
+            BalanceLockingStrategy.checkUsable(asset, newUsableSize);
+
+            int updated = assetRepository.compareAndSetBalance(
+                    asset.getId(), asset.getVersion(), asset.getSize().add(sizeChange), newUsableSize);
+            if (updated == 1) {
+                entityManager.refresh(asset);
+                return;
+            }
+
+            long backoffNanos = backoffMicros * 1000 * (attempt + 1);
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(backoffNanos + 1));
+        }
+
+        throw new BalanceContentionException(
+                "Could not update " + asset.getAssetName() + " balance after " + maxRetries + " retries");
+    }
+}
@@ -0,0 +1,40 @@
+package com.brokerage.reservation;
+
+import com.brokerage.entity.Asset;
+import com.brokerage.repository.AssetRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+@Component
+@RequiredArgsConstructor
+public class PessimisticBalanceLockingStrategy implements BalanceLockingStrategy {
+    private final EntityManager entityManager;
+    private final AssetRepository assetRepository;
+
+    @Override
+    public void updateBalance(Asset asset, BigDecimal sizeChange, BigDecimal usableSizeChange) {
+        entityManager.refresh(asset, LockModeType.PESSIMISTIC_WRITE);
+
+        BigDecimal newUsableSize = asset.getUsableSize().add(usableSizeChange);
+        BalanceLockingStrategy.checkUsable(asset, newUsableSize);
+
+        asset.setSize(asset.getSize().add(sizeChange));
+        asset.setUsableSize(newUsableSize);
+    }
+
+    /**
+     * Locks all asset rows of the customers in ascending ID order. Rows a transaction already holds are not waited
+     * for again, so its later {@link #updateBalance} calls only block on rows created since.
+     */
+    @Override
+    public void lockCustomers(Collection<Long> customerIds) {
+        if (!customerIds.isEmpty()) {
+            assetRepository.lockByCustomerIds(customerIds);
+        }
+    }
+}
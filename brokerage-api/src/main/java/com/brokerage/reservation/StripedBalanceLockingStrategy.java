@@ -0,0 +1,113 @@
+package com.brokerage.reservation;
+
+import com.brokerage.entity.Asset;
+import com.brokerage.exception.BalanceContentionException;
+import com.brokerage.repository.AssetRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes balance changes per customer with an in-process lock stripe. The stripe is held until the
+ * surrounding transaction completes, so only valid for a single application instance.
+ */
+@Component
+@RequiredArgsConstructor
+public class StripedBalanceLockingStrategy implements BalanceLockingStrategy {
+    private final EntityManager entityManager;
+    private final AssetRepository assetRepository;
+
+    @Value("${balance.striped.stripes:256}")
+    private int stripeCount;
+
+    @Value("${balance.striped.lock-timeout-ms:5000}")
+    private long lockTimeoutMs;
+
+    private ReentrantLock[] stripes;
+
+    @PostConstruct
+    public void init() {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public void updateBalance(Asset asset, BigDecimal sizeChange, BigDecimal usableSizeChange) {
+        ReentrantLock lock = acquire(asset.getCustomer().getId());
+        boolean releaseOnCompletion = TransactionSynchronizationManager.isSynchronizationActive();
+        if (releaseOnCompletion) {
+            releaseOnCompletion(lock);
+        }
+
+        try {
+            entityManager.refresh(asset);
+
+            BigDecimal newUsableSize = asset.getUsableSize().add(usableSizeChange);
+            BalanceLockingStrategy.checkUsable(asset, newUsableSize);
+
+            assetRepository.adjustBalance(asset.getId(), sizeChange, usableSizeChange);
+            entityManager.refresh(asset);
+        } finally {
+            if (!releaseOnCompletion) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Locks the stripes of all customers until the transaction completes, in ascending stripe order whatever the
+     * order of the customers, so that two transactions that share stripes cannot wait on each other. The stripes are
+     * reentrant, so the later {@link #updateBalance} calls of the transaction do not block.
+     */
+    @Override
+    public void lockCustomers(Collection<Long> customerIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        int[] indices = customerIds.stream().mapToInt(this::stripeOf).distinct().sorted().toArray();
+        for (int index : indices) {
+            releaseOnCompletion(acquire(index, "stripe " + index));
+        }
+    }
+
+    void releaseOnCompletion(ReentrantLock lock) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private int stripeOf(Long customerId) {
+        return Math.floorMod(customerId.hashCode(), stripes.length);
+    }
+
+    ReentrantLock acquire(Long customerId) {
+        return acquire(stripeOf(customerId), "customer " + customerId);
+    }
+
+    private ReentrantLock acquire(int index, String owner) {
+        ReentrantLock lock = stripes[index];
+        try {
+            if (!lock.tryLock(lockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new BalanceContentionException("Timed out waiting for balance lock of " + owner);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BalanceContentionException("Interrupted waiting for balance lock of " + owner);
+        }
+        return lock;
+    }
+}
@@ -0,0 +1,51 @@
+package com.brokerage.security;
+
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ownership rule for customer-scoped endpoints: admins may act for any customer, everyone else only for the
+ * customer ID carried in their token.
+ */
+@Component
+public class CustomerAccess {
+    private static final String ADMIN_AUTHORITY = "ROLE_ADMIN";
+
+    public boolean isAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> ADMIN_AUTHORITY.equals(authority.getAuthority()));
+    }
+
+    /**
+     * Customer ID of the caller, or {@code null} if the caller has none.
+     */
+    public Long currentCustomerId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal
+                ? principal.customerId()
+                : null;
+    }
+
+    /**
+     * Customer that lookups must be restricted to: {@code null} for admins, otherwise the caller's own customer ID.
+     */
+    public Long scopeCustomerId() {
+        if (isAdmin()) {
+            return null;
+        }
+        Long customerId = currentCustomerId();
+        if (customerId == null) {
+            throw new AccessDeniedException("Caller has no customer ID");
+        }
+        return customerId;
+    }
+
+    public void checkAccess(Long customerId) {
+        if (!isAdmin() && (customerId == null || !customerId.equals(currentCustomerId()))) {
+            throw new AccessDeniedException("Access denied to customer " + customerId);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.brokerage.security;
+
+import java.security.Principal;
+
+public record JwtPrincipal(String username, Long customerId, String role) implements Principal {
+    @Override
+    public String getName() {
+        return username;
+    }
+}
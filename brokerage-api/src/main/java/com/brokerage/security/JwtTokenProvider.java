@@ -1,13 +1,24 @@
 package com.brokerage.security;
 
 import com.brokerage.entity.Customer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtTokenProvider {
@@ -17,8 +28,27 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration:86400000}")
     private int jwtExpirationMs;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${jwt.cache.maximum-size:10000}")
+    private long cacheMaximumSize;
+
+    @Value("${jwt.cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    private Key signingKey;
+    private JwtParser jwtParser;
+    private Cache<String, VerifiedToken> verifiedTokens;
+    private final Map<String, List<GrantedAuthority>> authoritiesByRole = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
     }
 
     public String generateToken(Customer customer) {
@@ -31,29 +61,60 @@ public class JwtTokenProvider {
                 .claim("role", customer.getRole())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
+    /**
+     * Returns a new authentication for a valid token, or {@code null} if the token is invalid, expired or lacks
+     * the role or expiration claims. Verified tokens are cached, so the signature is only checked on a miss.
+     */
+    public Authentication authenticate(String token) {
+        VerifiedToken verified = verifiedTokens.getIfPresent(token);
+        if (verified != null && verified.expiresAtMs() <= System.currentTimeMillis()) {
+            verifiedTokens.invalidate(token);
+            verified = null;
+        }
+        if (verified == null) {
+            verified = verify(token);
+            if (verified == null) {
+                return null;
+            }
+            verifiedTokens.put(token, verified);
+        }
+        return new UsernamePasswordAuthenticationToken(verified.principal(), null, verified.authorities());
     }
 
     public boolean validateToken(String token) {
+        return authenticate(token) != null;
+    }
+
+    private VerifiedToken verify(String token) {
+        Claims claims;
+        String role;
+        Number customerId;
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            claims = jwtParser.parseClaimsJws(token).getBody();
+            role = claims.get("role", String.class);
+            customerId = claims.get("customerId", Number.class);
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return null;
+        }
+
+        Date expiration = claims.getExpiration();
+        if (role == null || expiration == null) {
+            return null;
         }
+        JwtPrincipal principal = new JwtPrincipal(claims.getSubject(),
+                customerId == null ? null : customerId.longValue(), role);
+        return new VerifiedToken(principal, authoritiesFor(role), expiration.getTime());
+    }
+
+    private List<GrantedAuthority> authoritiesFor(String role) {
+        return authoritiesByRole.computeIfAbsent(role,
+                r -> List.of(new SimpleGrantedAuthority("ROLE_" + r)));
+    }
+
+    private record VerifiedToken(JwtPrincipal principal, List<GrantedAuthority> authorities, long expiresAtMs) {
     }
-}
\ No newline at end of file
+}
@@ -3,15 +3,32 @@ package com.brokerage.service;
 import com.brokerage.dto.AssetResponse;
 import com.brokerage.entity.Asset;
 import com.brokerage.entity.Customer;
+import com.brokerage.exception.InsufficientBalanceException;
 import com.brokerage.exception.ResourceNotFoundException;
+import com.brokerage.instrument.InstrumentRegistry;
+import com.brokerage.journal.OrderJournal;
+import com.brokerage.ledger.BalanceLedger;
+import com.brokerage.ledger.LedgerBalance;
+import com.brokerage.money.Amount;
+import com.brokerage.notification.CustomerEventPublisher;
+import com.brokerage.repository.AssetBatchRepository;
 import com.brokerage.repository.AssetRepository;
+import com.brokerage.repository.BalanceEntryRepository;
 import com.brokerage.repository.CustomerRepository;
+import com.brokerage.reservation.BalanceReservationService;
+import com.brokerage.reservation.LockingMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,21 +37,51 @@ import java.util.stream.Collectors;
 public class AssetService {
     private final AssetRepository assetRepository;
     private final CustomerRepository customerRepository;
+    private final BalanceReservationService balanceReservationService;
+    private final BalanceLedger balanceLedger;
+    private final AssetBatchRepository assetBatchRepository;
+    private final MeterRegistry meterRegistry;
+    private final CustomerEventPublisher customerEventPublisher;
+    private final OrderJournal orderJournal;
+    private final InstrumentRegistry instrumentRegistry;
+    private final BalanceEntryRepository balanceEntryRepository;
+    private Timer balanceUpdateTimer;
 
-    public List<AssetResponse> listAssets(Long customerId, String assetNameFilter) {
-        Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
+    @PostConstruct
+    public void init() {
+        balanceUpdateTimer = meterRegistry.timer("brokerage.assets.balance.update");
+    }
 
-        List<Asset> assets;
+    @Transactional(readOnly = true)
+    public List<AssetResponse> listAssets(Long customerId, String assetNameFilter, boolean prefix) {
+        List<String> assetNames = null;
         if (assetNameFilter != null && !assetNameFilter.isEmpty()) {
-            assets = assetRepository.findByCustomerAndAssetNameContainingIgnoreCase(customer, assetNameFilter);
+            assetNames = prefix
+                    ? instrumentRegistry.namesStartingWith(assetNameFilter)
+                    : instrumentRegistry.namesContaining(assetNameFilter);
+        }
+        if (balanceLedger.isEnabled()) {
+            return listLedgerAssets(customerId, assetNames);
+        }
+
+        List<AssetResponse> assets;
+        if (balanceReservationService.getLockingMode() == LockingMode.ENTRIES) {
+            Set<String> matching = assetNames == null ? null : new HashSet<>(assetNames);
+            assets = balanceEntryRepository.findBalances(customerId).stream()
+                    .filter(asset -> matching == null || matching.contains(asset.getAssetName()))
+                    .collect(Collectors.toList());
+        } else if (assetNames == null) {
+            assets = assetRepository.findResponsesByCustomerId(customerId);
+        } else if (assetNames.isEmpty()) {
+            assets = List.of();
         } else {
-            assets = assetRepository.findByCustomer(customer);
+            assets = assetRepository.findResponsesByCustomerIdAndAssetNameIn(customerId, assetNames);
         }
 
-        return assets.stream()
-                .map(this::toAssetResponse)
-                .collect(Collectors.toList());
+        if (assets.isEmpty() && !customerRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("Customer not found");
+        }
+        return assets;
     }
 
     public Asset getOrCreateAsset(Customer customer, String assetName) {
@@ -51,18 +98,110 @@ public class AssetService {
     }
 
     public void updateAssetBalance(Asset asset, BigDecimal sizeChange, BigDecimal usableSizeChange) {
-        asset.setSize(asset.getSize().add(sizeChange));
-        asset.setUsableSize(asset.getUsableSize().add(usableSizeChange));
-        assetRepository.save(asset);
+        balanceUpdateTimer.record(() -> balanceReservationService.updateBalance(asset, sizeChange, usableSizeChange));
+    }
+
+    /**
+     * Takes the balance locks of every customer the transaction is going to change before it changes any, so that
+     * they are acquired in one global order. Nothing to lock when the ledger holds the balances.
+     */
+    public void lockBalances(Collection<Long> customerIds) {
+        if (!balanceLedger.isEnabled()) {
+            balanceReservationService.lockCustomers(customerIds);
+        }
+    }
+
+    @Transactional(noRollbackFor = InsufficientBalanceException.class)
+    public void reserve(Customer customer, String assetName, Amount amount) {
+        if (instrumentRegistry.find(assetName).isEmpty()) {
+            // Nobody holds an instrument that was never registered; rejected here so that it is not registered now
+            throw new InsufficientBalanceException("Insufficient " + assetName + " balance");
+        }
+        if (balanceLedger.isEnabled()) {
+            balanceLedger.reserve(customer.getId(), assetName, amount);
+        } else {
+            // The locking strategy rejects the reservation if it would overdraw the balance
+            Asset asset = getOrCreateAsset(customer, assetName);
+            updateAssetBalance(asset, BigDecimal.ZERO, amount.toBigDecimal().negate());
+        }
+        recordChange(customer.getId(), assetName, Amount.ZERO, amount.negate());
+    }
+
+    public void release(Customer customer, String assetName, Amount amount) {
+        if (balanceLedger.isEnabled()) {
+            balanceLedger.apply(customer.getId(), assetName, Amount.ZERO, amount);
+        } else {
+            Asset asset = getOrCreateAsset(customer, assetName);
+            updateAssetBalance(asset, BigDecimal.ZERO, amount.toBigDecimal());
+        }
+        recordChange(customer.getId(), assetName, Amount.ZERO, amount);
+    }
+
+    public void applyChanges(BalanceChangeSet changeSet) {
+        if (balanceLedger.isEnabled()) {
+            applyLedgerChanges(changeSet);
+        } else {
+            balanceReservationService.lockCustomers(changeSet.getChanges().stream()
+                    .map(change -> change.getCustomer().getId())
+                    .toList());
+            for (BalanceChangeSet.Change change : changeSet.getChanges()) {
+                Asset asset = getOrCreateAsset(change.getCustomer(), change.getAssetName());
+                updateAssetBalance(asset, change.getSizeChange().toBigDecimal(),
+                        change.getUsableSizeChange().toBigDecimal());
+            }
+        }
+        recordChanges(changeSet);
+    }
+
+    public void applyChangesInBatch(BalanceChangeSet changeSet) {
+        if (balanceLedger.isEnabled()) {
+            applyLedgerChanges(changeSet);
+        } else if (balanceReservationService.getLockingMode() == LockingMode.ENTRIES) {
+            balanceReservationService.appendEntries(changeSet.toBalanceRows());
+        } else {
+            assetBatchRepository.applyChanges(changeSet);
+        }
+        recordChanges(changeSet);
+    }
+
+    private void recordChanges(BalanceChangeSet changeSet) {
+        for (BalanceChangeSet.Change change : changeSet.getChanges()) {
+            recordChange(change.getCustomer().getId(), change.getAssetName(),
+                    change.getSizeChange(), change.getUsableSizeChange());
+        }
+    }
+
+    private void recordChange(long customerId, String assetName, Amount sizeChange, Amount usableSizeChange) {
+        customerEventPublisher.publishBalance(customerId, assetName, sizeChange, usableSizeChange);
+        orderJournal.recordBalance(customerId, assetName, sizeChange, usableSizeChange);
+    }
+
+    private void applyLedgerChanges(BalanceChangeSet changeSet) {
+        for (BalanceChangeSet.Change change : changeSet.getChanges()) {
+            balanceLedger.apply(change.getCustomer().getId(), change.getAssetName(),
+                    change.getSizeChange(), change.getUsableSizeChange());
+        }
+    }
+
+    private List<AssetResponse> listLedgerAssets(Long customerId, List<String> assetNames) {
+        if (!balanceLedger.hasAccount(customerId) && !customerRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("Customer not found");
+        }
+
+        Set<String> matching = assetNames == null ? null : new HashSet<>(assetNames);
+        return balanceLedger.balancesOf(customerId).stream()
+                .filter(balance -> matching == null || matching.contains(balance.assetName()))
+                .map(this::toAssetResponse)
+                .collect(Collectors.toList());
     }
 
-    private AssetResponse toAssetResponse(Asset asset) {
+    private AssetResponse toAssetResponse(LedgerBalance balance) {
         return AssetResponse.builder()
-                .id(asset.getId())
-                .customerId(asset.getCustomer().getId())
-                .assetName(asset.getAssetName())
-                .size(asset.getSize())
-                .usableSize(asset.getUsableSize())
+                .id(balance.rowId())
+                .customerId(balance.customerId())
+                .assetName(balance.assetName())
+                .size(BalanceLedger.toDecimal(balance.size()))
+                .usableSize(BalanceLedger.toDecimal(balance.usableSize()))
                 .build();
     }
 }
\ No newline at end of file
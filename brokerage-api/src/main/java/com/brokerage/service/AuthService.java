@@ -6,6 +6,7 @@ import com.brokerage.entity.Customer;
 import com.brokerage.exception.ResourceNotFoundException;
 import com.brokerage.repository.CustomerRepository;
 import com.brokerage.security.JwtTokenProvider;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -22,6 +23,7 @@ public class AuthService {
     private final JwtTokenProvider tokenProvider;
     private final AuthenticationManager authenticationManager;
 
+    @Timed("brokerage.auth.login")
     public LoginResponse login(LoginRequest request) {
         authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
@@ -0,0 +1,70 @@
+package com.brokerage.service;
+
+import com.brokerage.matching.Fill;
+import com.brokerage.matching.MatchingEngine;
+import com.brokerage.matching.OrderSequencer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Periodically settles books whose best bid meets or exceeds their best ask. Incoming orders are matched
+ * on arrival, so this only finds work for orders that rested without matching, such as crossing PENDING
+ * orders loaded at startup. Each crossed asset runs on its own sequencer partition, so assets on
+ * different partitions match in parallel, and each gets at most {@code batch-size} fills per run.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AutoMatchingService {
+    private final MatchingEngine matchingEngine;
+    private final OrderSequencer orderSequencer;
+    private final SettlementService settlementService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${matching.auto.enabled:true}")
+    private boolean enabled;
+
+    @Value("${matching.auto.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${matching.auto.interval-ms:1000}")
+    public void matchCrossedBooks() {
+        if (!enabled) {
+            return;
+        }
+
+        List<String> assetNames = matchingEngine.crossedAssets();
+        if (assetNames.isEmpty()) {
+            return;
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<CompletableFuture<Integer>> runs = new ArrayList<>(assetNames.size());
+        for (String assetName : assetNames) {
+            runs.add(orderSequencer.submit(assetName, () -> transactionTemplate.execute(status -> {
+                List<Fill> fills = matchingEngine.uncross(assetName, batchSize);
+                settlementService.settle(fills);
+                return fills.size();
+            })));
+        }
+
+        for (int i = 0; i < runs.size(); i++) {
+            try {
+                int fills = runs.get(i).join();
+                log.debug("Auto-matched {} fills for {}", fills, assetNames.get(i));
+            } catch (CompletionException e) {
+                log.warn("Auto-matching {} failed, will retry", assetNames.get(i), e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.brokerage.service;
+
+import com.brokerage.entity.Customer;
+import com.brokerage.money.Amount;
+import com.brokerage.repository.AssetBatchRepository.BalanceRow;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Nets balance changes per (customer, asset). Changes are iterated in (customerId, assetName) order so
+ * every writer acquires row locks in the same order.
+ */
+public class BalanceChangeSet {
+    private static final Comparator<BalanceKey> KEY_ORDER =
+            Comparator.comparing(BalanceKey::customerId).thenComparing(BalanceKey::assetName);
+
+    private final Map<BalanceKey, Change> changes = new TreeMap<>(KEY_ORDER);
+
+    public void add(Customer customer, String assetName, Amount sizeChange, Amount usableSizeChange) {
+        changes.computeIfAbsent(new BalanceKey(customer.getId(), assetName), key -> new Change(customer, assetName))
+                .add(sizeChange, usableSizeChange);
+    }
+
+    public Collection<Change> getChanges() {
+        return changes.values();
+    }
+
+    public List<BalanceRow> toBalanceRows() {
+        List<BalanceRow> rows = new ArrayList<>(changes.size());
+        for (Change change : changes.values()) {
+            rows.add(new BalanceRow(change.getCustomer().getId(), change.getAssetName(),
+                    change.getSizeChange().toBigDecimal(), change.getUsableSizeChange().toBigDecimal()));
+        }
+        return rows;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    public record BalanceKey(Long customerId, String assetName) {
+    }
+
+    @Getter
+    public static class Change {
+        private final Customer customer;
+        private final String assetName;
+        private Amount sizeChange = Amount.ZERO;
+        private Amount usableSizeChange = Amount.ZERO;
+
+        Change(Customer customer, String assetName) {
+            this.customer = customer;
+            this.assetName = assetName;
+        }
+
+        void add(Amount size, Amount usableSize) {
+            sizeChange = sizeChange.add(size);
+            usableSizeChange = usableSizeChange.add(usableSize);
+        }
+    }
+}
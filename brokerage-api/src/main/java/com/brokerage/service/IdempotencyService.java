@@ -0,0 +1,178 @@
+package com.brokerage.service;
+
+import com.brokerage.entity.IdempotencyKey;
+import com.brokerage.exception.IdempotencyKeyConflictException;
+import com.brokerage.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the response of each operation performed under an {@code Idempotency-Key}. The key row is
+ * written in the same transaction as the operation, and completed responses are cached in memory so a
+ * retry is answered without touching the database. A key reused for a different request is rejected.
+ * Requests with the same key are serialized by an in-process lock stripe, which assumes a single instance.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+    private static final int LOCK_STRIPES = 256;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${idempotency.cache.maximum-size:100000}")
+    private long cacheMaximumSize;
+
+    @Value("${idempotency.retention-hours:24}")
+    private long retentionHours;
+
+    private Cache<String, StoredResponse> responses;
+    private final ReentrantLock[] keyLocks = new ReentrantLock[LOCK_STRIPES];
+
+    @PostConstruct
+    public void init() {
+        responses = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(Duration.ofHours(retentionHours))
+                .build();
+        for (int i = 0; i < keyLocks.length; i++) {
+            keyLocks[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> Optional<T> findCached(String key, long customerId, String operation, Object request, Class<T> type) {
+        StoredResponse stored = responses.getIfPresent(scopedKey(key, customerId));
+        if (stored == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(type.cast(stored.responseFor(fingerprint(operation, request))));
+    }
+
+    /**
+     * Returns the stored response for the key, or runs the action and stores its response. The key is claimed
+     * before it is looked up and released only once the action has committed, so a concurrent request with the
+     * same key, even for another asset's sequencer partition, waits and then gets the stored response or a
+     * conflict instead of running as well.
+     */
+    public <T> T execute(String key, long customerId, String operation, Object request, Class<T> type,
+                         Supplier<T> action) {
+        String scopedKey = scopedKey(key, customerId);
+        String fingerprint = fingerprint(operation, request);
+
+        ReentrantLock lock = keyLocks[Math.floorMod(scopedKey.hashCode(), keyLocks.length)];
+        lock.lock();
+        try {
+            return executeClaimed(scopedKey, customerId, fingerprint, type, action);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private <T> T executeClaimed(String scopedKey, long customerId, String fingerprint, Class<T> type,
+                                 Supplier<T> action) {
+        StoredResponse stored = responses.getIfPresent(scopedKey);
+        if (stored == null) {
+            stored = idempotencyKeyRepository.findById(scopedKey)
+                    .map(row -> new StoredResponse(row.getFingerprint(), read(row.getResponseBody(), type)))
+                    .orElse(null);
+        }
+        if (stored != null) {
+            responses.put(scopedKey, stored);
+            return type.cast(stored.responseFor(fingerprint));
+        }
+
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            T response = action.get();
+            entityManager.persist(IdempotencyKey.builder()
+                    .key(scopedKey)
+                    .customerId(customerId)
+                    .fingerprint(fingerprint)
+                    .responseBody(write(response))
+                    .build());
+
+            StoredResponse completed = new StoredResponse(fingerprint, response);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    responses.put(scopedKey, completed);
+                }
+            });
+            return response;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+    public void purgeExpiredKeys() {
+        Integer deleted = new TransactionTemplate(transactionManager).execute(status ->
+                idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(retentionHours)));
+        if (deleted != null && deleted > 0) {
+            log.debug("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    private String scopedKey(String key, long customerId) {
+        return customerId + ":" + key;
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Cannot fingerprint idempotent request", e);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot store idempotent response", e);
+        }
+    }
+
+    private Object read(String body, Class<?> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read idempotent response", e);
+        }
+    }
+
+    private record StoredResponse(String fingerprint, Object response) {
+        Object responseFor(String requestFingerprint) {
+            if (!fingerprint.equals(requestFingerprint)) {
+                throw new IdempotencyKeyConflictException("Idempotency-Key was already used for a different request");
+            }
+            return response;
+        }
+    }
+}
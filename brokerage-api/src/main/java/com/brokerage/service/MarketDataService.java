@@ -0,0 +1,40 @@
+package com.brokerage.service;
+
+import com.brokerage.dto.MarketDepthResponse;
+import com.brokerage.entity.Side;
+import com.brokerage.matching.MarketDepth;
+import com.brokerage.matching.MatchingEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+
+@Service
+@RequiredArgsConstructor
+public class MarketDataService {
+    private final MatchingEngine matchingEngine;
+
+    @Value("${market.depth.max-levels:100}")
+    private int maxLevels;
+
+    public MarketDepthResponse getDepth(String assetName, int levels) {
+        MarketDepth depth = matchingEngine.depthOf(assetName);
+        if (depth == null) {
+            return MarketDepthResponse.builder()
+                    .assetName(assetName)
+                    .bids(Collections.emptyList())
+                    .asks(Collections.emptyList())
+                    .build();
+        }
+
+        int count = Math.min(Math.max(levels, 1), maxLevels);
+        return MarketDepthResponse.builder()
+                .assetName(assetName)
+                .bestBid(depth.best(Side.BUY))
+                .bestAsk(depth.best(Side.SELL))
+                .bids(depth.levels(Side.BUY, count))
+                .asks(depth.levels(Side.SELL, count))
+                .build();
+    }
+}
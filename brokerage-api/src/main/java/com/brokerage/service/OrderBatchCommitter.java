@@ -0,0 +1,174 @@
+package com.brokerage.service;
+
+import com.brokerage.dto.AsyncOrderResponse;
+import com.brokerage.dto.CreateOrderRequest;
+import com.brokerage.exception.OrderQueueFullException;
+import com.brokerage.matching.OrderSequencer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Group commit for asynchronously submitted orders. A single committer thread drains whatever has queued
+ * up while the previous group was being written, splits it per asset and hands each asset's group to its
+ * sequencer partition as one transaction. Outcomes are kept for {@code orders.async.result-ttl-seconds} and
+ * are only returned to the customer that submitted the order, or to an admin.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderBatchCommitter {
+    private final OrderSequencer orderSequencer;
+    private final OrderService orderService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${orders.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${orders.async.batch-size:200}")
+    private int batchSize;
+
+    @Value("${orders.async.result-ttl-seconds:600}")
+    private long resultTtlSeconds;
+
+    private BlockingQueue<OrderSubmission> queue;
+    private Cache<String, Outcome> results;
+    private Thread committer;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        results = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(resultTtlSeconds))
+                .build();
+        Gauge.builder("brokerage.orders.async.queued", queue, BlockingQueue::size).register(meterRegistry);
+
+        running = true;
+        committer = new Thread(this::run, "order-committer");
+        committer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        committer.interrupt();
+        committer.join(Duration.ofSeconds(10));
+    }
+
+    public AsyncOrderResponse enqueue(CreateOrderRequest request) {
+        String clientOrderId = UUID.randomUUID().toString();
+        AsyncOrderResponse queued = AsyncOrderResponse.queued(clientOrderId);
+        results.put(clientOrderId, new Outcome(request.getCustomerId(), queued));
+        if (!queue.offer(new OrderSubmission(clientOrderId, request))) {
+            results.invalidate(clientOrderId);
+            throw new OrderQueueFullException("Order queue is full, retry later");
+        }
+        return queued;
+    }
+
+    /**
+     * Outcome of the submission if it was made by {@code customerId}, or by anyone when {@code customerId} is
+     * {@code null}.
+     */
+    public Optional<AsyncOrderResponse> find(String clientOrderId, Long customerId) {
+        return Optional.ofNullable(results.getIfPresent(clientOrderId))
+                .filter(outcome -> customerId == null || customerId == outcome.customerId())
+                .map(Outcome::response);
+    }
+
+    private void run() {
+        List<OrderSubmission> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                OrderSubmission first = running ? queue.take() : queue.poll();
+                if (first == null) {
+                    break;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+            } catch (InterruptedException e) {
+                continue;
+            }
+
+            try {
+                commit(batch);
+            } catch (RuntimeException e) {
+                log.error("Order group commit failed", e);
+                fail(batch);
+            }
+            batch.clear();
+        }
+    }
+
+    private void commit(List<OrderSubmission> batch) {
+        Map<String, List<OrderSubmission>> byAsset = new LinkedHashMap<>();
+        for (OrderSubmission submission : batch) {
+            byAsset.computeIfAbsent(submission.request().getAssetName(), name -> new ArrayList<>()).add(submission);
+        }
+
+        List<List<OrderSubmission>> groups = new ArrayList<>(byAsset.size());
+        List<CompletableFuture<List<AsyncOrderResponse>>> commits = new ArrayList<>(byAsset.size());
+        byAsset.forEach((assetName, submissions) -> {
+            groups.add(submissions);
+            try {
+                commits.add(orderSequencer.submit(assetName, () -> orderService.createOrders(submissions)));
+            } catch (RuntimeException e) {
+                commits.add(CompletableFuture.failedFuture(e));
+            }
+        });
+
+        for (int i = 0; i < groups.size(); i++) {
+            List<OrderSubmission> submissions = groups.get(i);
+            Map<String, Long> customerIds = new HashMap<>();
+            submissions.forEach(submission ->
+                    customerIds.put(submission.clientOrderId(), submission.request().getCustomerId()));
+            try {
+                commits.get(i).join().forEach(result -> results.put(result.getClientOrderId(),
+                        new Outcome(customerIds.get(result.getClientOrderId()), result)));
+            } catch (RuntimeException e) {
+                log.warn("Group commit of {} orders for {} failed", submissions.size(),
+                        submissions.get(0).request().getAssetName(),
+                        e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                fail(submissions);
+            }
+        }
+    }
+
+    /**
+     * Rejects the submissions that are still QUEUED after their group failed, so that none of them stays QUEUED.
+     */
+    private void fail(List<OrderSubmission> submissions) {
+        for (OrderSubmission submission : submissions) {
+            Outcome outcome = results.getIfPresent(submission.clientOrderId());
+            if (outcome == null || outcome.response().getStatus() == AsyncOrderResponse.SubmissionStatus.QUEUED) {
+                meterRegistry.counter("brokerage.orders.rejected", "reason", "processing_failed").increment();
+                results.put(submission.clientOrderId(), new Outcome(submission.request().getCustomerId(),
+                        AsyncOrderResponse.rejected(submission.clientOrderId(), "Order could not be processed")));
+            }
+        }
+    }
+
+    private record Outcome(long customerId, AsyncOrderResponse response) {
+    }
+}
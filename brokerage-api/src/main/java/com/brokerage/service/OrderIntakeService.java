@@ -0,0 +1,154 @@
+package com.brokerage.service;
+
+import com.brokerage.dto.AsyncOrderResponse;
+import com.brokerage.dto.BatchOrderResponse;
+import com.brokerage.dto.BatchOrderResult;
+import com.brokerage.dto.CreateOrderRequest;
+import com.brokerage.dto.MatchOrderResult;
+import com.brokerage.dto.MatchOrdersResponse;
+import com.brokerage.dto.OrderResponse;
+import com.brokerage.exception.ResourceNotFoundException;
+import com.brokerage.matching.OrderSequencer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@Service
+@RequiredArgsConstructor
+public class OrderIntakeService {
+    private static final String CREATE_ORDER = "CREATE_ORDER";
+    private static final String DELETE_ORDER = "DELETE_ORDER";
+
+    private final OrderSequencer orderSequencer;
+    private final OrderService orderService;
+    private final OrderBatchCommitter orderBatchCommitter;
+    private final IdempotencyService idempotencyService;
+
+    public OrderResponse createOrder(CreateOrderRequest request) {
+        return orderSequencer.execute(request.getAssetName(), () -> orderService.createOrder(request));
+    }
+
+    public OrderResponse createOrder(CreateOrderRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return createOrder(request);
+        }
+
+        long customerId = request.getCustomerId();
+        Optional<OrderResponse> previous = idempotencyService.findCached(
+                idempotencyKey, customerId, CREATE_ORDER, request, OrderResponse.class);
+        if (previous.isPresent()) {
+            return previous.get();
+        }
+        return orderSequencer.execute(request.getAssetName(), () -> idempotencyService.execute(
+                idempotencyKey, customerId, CREATE_ORDER, request, OrderResponse.class,
+                () -> orderService.createOrder(request)));
+    }
+
+    public BatchOrderResponse createOrders(List<CreateOrderRequest> requests) {
+        Map<String, List<Integer>> indexesByAsset = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            indexesByAsset.computeIfAbsent(requests.get(i).getAssetName(), name -> new ArrayList<>()).add(i);
+        }
+
+        List<List<Integer>> groups = new ArrayList<>(indexesByAsset.size());
+        List<CompletableFuture<List<BatchOrderResult>>> creates = new ArrayList<>(indexesByAsset.size());
+        indexesByAsset.forEach((assetName, indexes) -> {
+            List<CreateOrderRequest> group = indexes.stream().map(requests::get).toList();
+            groups.add(indexes);
+            creates.add(orderSequencer.submit(assetName, () -> orderService.createOrderBatch(group)));
+        });
+
+        BatchOrderResult[] results = new BatchOrderResult[requests.size()];
+        for (int i = 0; i < groups.size(); i++) {
+            List<Integer> indexes = groups.get(i);
+            List<BatchOrderResult> groupResults;
+            try {
+                groupResults = creates.get(i).join();
+            } catch (CompletionException e) {
+                groupResults = indexes.stream()
+                        .map(index -> BatchOrderResult.failed("Order could not be processed"))
+                        .toList();
+            }
+            for (int j = 0; j < indexes.size(); j++) {
+                BatchOrderResult result = groupResults.get(j);
+                result.setIndex(indexes.get(j));
+                results[indexes.get(j)] = result;
+            }
+        }
+
+        int createdCount = (int) Arrays.stream(results).filter(BatchOrderResult::isCreated).count();
+        return BatchOrderResponse.builder()
+                .createdCount(createdCount)
+                .failedCount(results.length - createdCount)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    public AsyncOrderResponse submitOrder(CreateOrderRequest request) {
+        return orderBatchCommitter.enqueue(request);
+    }
+
+    /**
+     * Looks up a submission of {@code customerId}, or of any customer when {@code customerId} is {@code null}.
+     * Another customer's submission is reported as not found.
+     */
+    public AsyncOrderResponse getSubmission(String clientOrderId, Long customerId) {
+        return orderBatchCommitter.find(clientOrderId, customerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order submission not found"));
+    }
+
+    public void deleteOrder(Long orderId, Long customerId) {
+        String assetName = orderService.getOrderAssetName(orderId, customerId);
+        orderSequencer.run(assetName, () -> orderService.deleteOrder(orderId, customerId));
+    }
+
+    public void deleteOrder(Long orderId, Long customerId, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            deleteOrder(orderId, customerId);
+            return;
+        }
+        if (idempotencyService.findCached(idempotencyKey, customerId, DELETE_ORDER, orderId, Long.class).isPresent()) {
+            return;
+        }
+
+        String assetName = orderService.getOrderAssetName(orderId, customerId);
+        orderSequencer.run(assetName, () -> idempotencyService.execute(
+                idempotencyKey, customerId, DELETE_ORDER, orderId, Long.class, () -> {
+                    orderService.deleteOrder(orderId, customerId);
+                    return orderId;
+                }));
+    }
+
+    public MatchOrdersResponse matchOrders(List<Long> orderIds) {
+        Map<String, List<Long>> orderIdsByAsset = orderService.groupOrderIdsByAsset(orderIds);
+
+        List<MatchOrderResult> results = new ArrayList<>(orderIds.size());
+        Set<Long> knownOrderIds = new HashSet<>();
+        orderIdsByAsset.forEach((assetName, assetOrderIds) -> {
+            knownOrderIds.addAll(assetOrderIds);
+            results.addAll(orderSequencer.execute(assetName, () -> orderService.matchOrders(assetOrderIds)));
+        });
+        for (Long orderId : orderIds) {
+            if (!knownOrderIds.contains(orderId)) {
+                results.add(MatchOrderResult.failed(orderId, "Order not found: " + orderId));
+            }
+        }
+
+        int matchedCount = (int) results.stream().filter(MatchOrderResult::isMatched).count();
+        return MatchOrdersResponse.builder()
+                .matchedCount(matchedCount)
+                .failedCount(results.size() - matchedCount)
+                .results(results)
+                .build();
+    }
+}
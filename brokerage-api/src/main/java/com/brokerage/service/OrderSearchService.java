@@ -0,0 +1,110 @@
+package com.brokerage.service;
+
+import com.brokerage.archive.OrderArchiver;
+import com.brokerage.dto.CountMode;
+import com.brokerage.dto.OrderCursor;
+import com.brokerage.dto.OrderResponse;
+import com.brokerage.dto.OrderSearchCriteria;
+import com.brokerage.dto.OrderSearchResponse;
+import com.brokerage.exception.BadRequestException;
+import com.brokerage.instrument.InstrumentRegistry;
+import com.brokerage.repository.OrderSearchRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.stream.Collectors;
+
+/**
+ * Cross-customer order search. Reads {@code orders_archive} as well whenever {@link OrderArchiver} says it may
+ * hold matching orders, and merges both in creation order like order listing does.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class OrderSearchService {
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final OrderSearchRepository orderSearchRepository;
+    private final InstrumentRegistry instrumentRegistry;
+    private final OrderArchiver orderArchiver;
+
+    @Value("${orders.search.count-estimate-cap:10000}")
+    private long countEstimateCap;
+
+    public OrderSearchResponse search(OrderSearchCriteria criteria, String cursor, int limit, CountMode countMode) {
+        validate(criteria);
+        OrderCursor after = cursor == null || cursor.isEmpty() ? null : OrderCursor.decode(cursor);
+
+        Integer instrumentId = null;
+        if (criteria.assetName() != null) {
+            OptionalInt id = instrumentRegistry.find(criteria.assetName());
+            if (id.isEmpty()) {
+                return OrderSearchResponse.builder()
+                        .orders(List.of())
+                        .totalCount(countMode == CountMode.NONE ? null : 0L)
+                        .totalCountExact(countMode == CountMode.NONE ? null : true)
+                        .build();
+            }
+            instrumentId = id.getAsInt();
+        }
+
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<OrderResponse> orders = orderSearchRepository.search(instrumentId, criteria, after, pageSize + 1);
+        boolean archive = orderArchiver.mayContain(after != null ? after.createDate() : criteria.startDate(),
+                criteria.status());
+        if (archive) {
+            List<OrderResponse> archived = orderSearchRepository.searchArchive(instrumentId, criteria, after,
+                    pageSize + 1);
+            if (!archived.isEmpty()) {
+                orders = OrderService.withArchived(archived, orders)
+                        .sorted(OrderService.CREATION_ORDER)
+                        .collect(Collectors.toList());
+            }
+        }
+
+        String nextCursor = null;
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+            OrderResponse last = orders.get(pageSize - 1);
+            nextCursor = new OrderCursor(last.getCreateDate(), last.getId()).encode();
+        }
+
+        OrderSearchResponse.OrderSearchResponseBuilder response = OrderSearchResponse.builder()
+                .orders(orders)
+                .nextCursor(nextCursor);
+        switch (countMode) {
+            case EXACT -> {
+                long count = orderSearchRepository.count(instrumentId, criteria);
+                if (archive) {
+                    count += orderSearchRepository.countArchive(instrumentId, criteria);
+                }
+                response.totalCount(count).totalCountExact(true);
+            }
+            case ESTIMATE -> {
+                long count = orderSearchRepository.count(instrumentId, criteria, countEstimateCap);
+                if (archive && count < countEstimateCap) {
+                    count += orderSearchRepository.countArchive(instrumentId, criteria, countEstimateCap - count);
+                }
+                response.totalCount(count).totalCountExact(count < countEstimateCap);
+            }
+            case NONE -> {
+            }
+        }
+        return response.build();
+    }
+
+    private static void validate(OrderSearchCriteria criteria) {
+        if (criteria.minPrice() != null && criteria.maxPrice() != null
+                && criteria.minPrice().compareTo(criteria.maxPrice()) > 0) {
+            throw new BadRequestException("minPrice must not be greater than maxPrice");
+        }
+        if (criteria.startDate() != null && criteria.endDate() != null
+                && criteria.startDate().isAfter(criteria.endDate())) {
+            throw new BadRequestException("startDate must not be after endDate");
+        }
+    }
+}
@@ -1,57 +1,230 @@
 package com.brokerage.service;
 
+import com.brokerage.archive.OrderArchiver;
+import com.brokerage.dto.AsyncOrderResponse;
+import com.brokerage.dto.BatchOrderResult;
 import com.brokerage.dto.CreateOrderRequest;
+import com.brokerage.dto.MatchOrderResult;
+import com.brokerage.dto.OrderCursor;
+import com.brokerage.dto.OrderPageResponse;
 import com.brokerage.dto.OrderResponse;
 import com.brokerage.entity.*;
 import com.brokerage.exception.InsufficientBalanceException;
 import com.brokerage.exception.InvalidOrderStatusException;
 import com.brokerage.exception.ResourceNotFoundException;
+import com.brokerage.matching.Fill;
+import com.brokerage.matching.MatchingEngine;
+import com.brokerage.money.Amount;
+import com.brokerage.notification.CustomerEventPublisher;
 import com.brokerage.repository.CustomerRepository;
+import com.brokerage.repository.OrderArchiveRepository;
 import com.brokerage.repository.OrderRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class OrderService {
+    private static final int MAX_PAGE_SIZE = 1000;
+    static final Comparator<OrderResponse> CREATION_ORDER =
+            Comparator.comparing(OrderResponse::getCreateDate).thenComparing(OrderResponse::getId);
+
     private final OrderRepository orderRepository;
     private final CustomerRepository customerRepository;
     private final AssetService assetService;
+    private final MatchingEngine matchingEngine;
+    private final SettlementService settlementService;
+    private final CustomerEventPublisher customerEventPublisher;
+    private final OrderArchiver orderArchiver;
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final MeterRegistry meterRegistry;
 
+    @Timed("brokerage.orders.create")
     public OrderResponse createOrder(CreateOrderRequest request) {
-        Customer customer = customerRepository.findById(request.getCustomerId())
-                .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
+        Customer customer = customerRepository.findById(request.getCustomerId()).orElse(null);
+        if (customer == null) {
+            countRejection("customer_not_found");
+            throw new ResourceNotFoundException("Customer not found");
+        }
+
+        lockParticipants(Set.of(customer.getId()), List.of(request));
+        try {
+            reserve(customer, request);
+        } catch (InsufficientBalanceException e) {
+            countRejection("insufficient_balance");
+            throw e;
+        }
+
+        Order savedOrder = orderRepository.save(newOrder(customer, request));
+        orderRepository.flush();
+        customerEventPublisher.publishOrder(savedOrder);
+
+        List<Fill> fills = matchingEngine.submit(savedOrder);
+        settlementService.settle(fills);
 
-        BigDecimal requiredAmount;
-        Asset assetToUpdate;
+        return toOrderResponse(savedOrder);
+    }
+
+    @Timed("brokerage.orders.create.batch")
+    public List<AsyncOrderResponse> createOrders(List<OrderSubmission> submissions) {
+        List<OrderOutcome> outcomes = createOrderGroup(submissions.stream().map(OrderSubmission::request).toList());
+
+        List<AsyncOrderResponse> results = new ArrayList<>(submissions.size());
+        for (int i = 0; i < submissions.size(); i++) {
+            String clientOrderId = submissions.get(i).clientOrderId();
+            OrderOutcome outcome = outcomes.get(i);
+            results.add(outcome.order() != null
+                    ? AsyncOrderResponse.accepted(clientOrderId, outcome.order().getId())
+                    : AsyncOrderResponse.rejected(clientOrderId, outcome.rejection()));
+        }
+        return results;
+    }
 
-        if (request.getSide() == Side.BUY) {
-            Asset tryAsset = assetService.getOrCreateAsset(customer, "TRY");
-            requiredAmount = request.getSize().multiply(request.getPrice());
-            
-            if (tryAsset.getUsableSize().compareTo(requiredAmount) < 0) {
-                throw new InsufficientBalanceException("Insufficient TRY balance");
+    @Timed("brokerage.orders.create.batch")
+    public List<BatchOrderResult> createOrderBatch(List<CreateOrderRequest> requests) {
+        return createOrderGroup(requests).stream()
+                .map(outcome -> outcome.order() != null
+                        ? BatchOrderResult.created(toOrderResponse(outcome.order()))
+                        : BatchOrderResult.failed(outcome.rejection()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Creates a group of orders for one asset in a single transaction. Customers are loaded once and each
+     * customer's reservations are first attempted as one aggregate amount; only if that fails are they
+     * retried order by order, so orders that do not fit are rejected individually without affecting the
+     * rest. Accepted orders are inserted in one JDBC batch and then matched in submission order.
+     */
+    private List<OrderOutcome> createOrderGroup(List<CreateOrderRequest> requests) {
+        Set<Long> customerIds = requests.stream()
+                .map(CreateOrderRequest::getCustomerId)
+                .collect(Collectors.toSet());
+        Map<Long, Customer> customers = customerRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+
+        lockParticipants(customers.keySet(), requests);
+
+        String[] rejections = new String[requests.size()];
+        Map<ReservationKey, List<Integer>> reservations = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateOrderRequest request = requests.get(i);
+            if (!customers.containsKey(request.getCustomerId())) {
+                countRejection("customer_not_found");
+                rejections[i] = "Customer not found";
+                continue;
             }
-            
-            assetService.updateAssetBalance(tryAsset, BigDecimal.ZERO, requiredAmount.negate());
-        } else {
-            Asset assetToSell = assetService.getOrCreateAsset(customer, request.getAssetName());
-            
-            if (assetToSell.getUsableSize().compareTo(request.getSize()) < 0) {
-                throw new InsufficientBalanceException("Insufficient " + request.getAssetName() + " balance");
+            ReservationKey key = new ReservationKey(request.getCustomerId(), reservedAssetName(request));
+            reservations.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+        }
+
+        reservations.forEach((key, indexes) -> {
+            Customer customer = customers.get(key.customerId());
+            Amount total = indexes.stream()
+                    .map(index -> reservedAmount(requests.get(index)))
+                    .reduce(Amount.ZERO, Amount::add);
+            try {
+                assetService.reserve(customer, key.assetName(), total);
+            } catch (InsufficientBalanceException aggregateFailure) {
+                for (int index : indexes) {
+                    try {
+                        assetService.reserve(customer, key.assetName(), reservedAmount(requests.get(index)));
+                    } catch (InsufficientBalanceException e) {
+                        countRejection("insufficient_balance");
+                        rejections[index] = e.getMessage();
+                    }
+                }
+            }
+        });
+
+        Order[] created = new Order[requests.size()];
+        List<Order> orders = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            if (rejections[i] == null) {
+                CreateOrderRequest request = requests.get(i);
+                created[i] = newOrder(customers.get(request.getCustomerId()), request);
+                orders.add(created[i]);
             }
-            
-            assetService.updateAssetBalance(assetToSell, BigDecimal.ZERO, request.getSize().negate());
         }
 
-        Order order = Order.builder()
+        orderRepository.saveAll(orders);
+        orderRepository.flush();
+
+        List<Fill> fills = new ArrayList<>();
+        for (Order order : orders) {
+            customerEventPublisher.publishOrder(order);
+            fills.addAll(matchingEngine.submit(order));
+        }
+        settlementService.settle(fills);
+
+        List<OrderOutcome> outcomes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            outcomes.add(new OrderOutcome(created[i], rejections[i]));
+        }
+        return outcomes;
+    }
+
+    /**
+     * Locks the balances of the submitting customers and of the resting orders theirs would trade with, all before
+     * the first reservation, so that reservation and settlement take balance locks in one global order. The orders
+     * of each side are walked against the book as one order at their most aggressive price, which finds every
+     * counterparty they can trade with and possibly a few more.
+     */
+    private void lockParticipants(Set<Long> customerIds, List<CreateOrderRequest> requests) {
+        Set<Long> participants = new HashSet<>(customerIds);
+        for (Side side : Side.values()) {
+            BigDecimal size = BigDecimal.ZERO;
+            BigDecimal limit = null;
+            for (CreateOrderRequest request : requests) {
+                if (request.getSide() == side) {
+                    size = size.add(request.getSize());
+                    limit = limit == null ? request.getPrice()
+                            : side == Side.BUY ? limit.max(request.getPrice()) : limit.min(request.getPrice());
+                }
+            }
+            if (limit != null) {
+                participants.addAll(matchingEngine.counterparties(requests.get(0).getAssetName(), side, limit, size));
+            }
+        }
+        assetService.lockBalances(participants);
+    }
+
+    private void reserve(Customer customer, CreateOrderRequest request) {
+        assetService.reserve(customer, reservedAssetName(request), reservedAmount(request));
+    }
+
+    private String reservedAssetName(CreateOrderRequest request) {
+        return request.getSide() == Side.BUY ? Instrument.SETTLEMENT_CURRENCY : request.getAssetName();
+    }
+
+    private Amount reservedAmount(CreateOrderRequest request) {
+        Amount size = Amount.of(request.getSize());
+        return request.getSide() == Side.BUY ? size.multiply(Amount.of(request.getPrice())) : size;
+    }
+
+    private Order newOrder(Customer customer, CreateOrderRequest request) {
+        return Order.builder()
                 .customer(customer)
                 .assetName(request.getAssetName())
                 .orderSide(request.getSide())
@@ -59,69 +232,225 @@ public class OrderService {
                 .price(request.getPrice())
                 .status(Status.PENDING)
                 .build();
-
-        Order savedOrder = orderRepository.save(order);
-        return toOrderResponse(savedOrder);
     }
 
+    @Transactional(readOnly = true)
     public List<OrderResponse> listOrders(Long customerId, LocalDateTime startDate, LocalDateTime endDate, Status status) {
-        Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
+        List<OrderResponse> orders = orderRepository.findResponsesByCustomerIdAndDateRangeAndStatus(
+                customerId, startDate, endDate, status);
+        if (orderArchiver.mayContain(startDate, status)) {
+            List<OrderResponse> archived = orderArchiveRepository.findResponses(customerId, startDate, endDate, status);
+            if (!archived.isEmpty()) {
+                orders = withArchived(archived, orders)
+                        .sorted(CREATION_ORDER)
+                        .collect(Collectors.toList());
+            }
+        }
 
-        List<Order> orders = orderRepository.findByCustomerAndDateRangeAndStatus(customer, startDate, endDate, status);
-        
-        return orders.stream()
-                .map(this::toOrderResponse)
-                .collect(Collectors.toList());
+        if (orders.isEmpty()) {
+            ensureCustomerExists(customerId);
+        }
+        return orders;
+    }
+
+    @Transactional(readOnly = true)
+    public OrderPageResponse listOrdersPage(Long customerId, LocalDateTime startDate, LocalDateTime endDate,
+                                            Status status, String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        OrderCursor after = cursor == null || cursor.isEmpty() ? null : OrderCursor.decode(cursor);
+        List<OrderResponse> orders;
+        if (after == null) {
+            orders = orderRepository.findFirstPage(customerId, startDate, endDate, status, pageable);
+        } else {
+            orders = orderRepository.findPageAfter(customerId, startDate, endDate, status,
+                    after.createDate(), after.id(), pageable);
+        }
+        if (orderArchiver.mayContain(after != null ? after.createDate() : startDate, status)) {
+            List<OrderResponse> archived = orderArchiveRepository.findPage(customerId, startDate, endDate, status,
+                    after, pageSize + 1);
+            if (!archived.isEmpty()) {
+                orders = withArchived(archived, orders)
+                        .sorted(CREATION_ORDER)
+                        .collect(Collectors.toList());
+            }
+        }
+
+        if (orders.isEmpty() && cursor == null) {
+            ensureCustomerExists(customerId);
+        }
+
+        String nextCursor = null;
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+            OrderResponse last = orders.get(pageSize - 1);
+            nextCursor = new OrderCursor(last.getCreateDate(), last.getId()).encode();
+        }
+
+        return OrderPageResponse.builder()
+                .orders(orders)
+                .nextCursor(nextCursor)
+                .build();
     }
 
+    @Transactional(readOnly = true)
+    public void streamOrders(Long customerId, LocalDateTime startDate, LocalDateTime endDate, Status status,
+                             Consumer<OrderResponse> consumer) {
+        try (Stream<OrderResponse> orders = orderRepository.streamByCustomerAndDateRangeAndStatus(
+                customerId, startDate, endDate, status)) {
+            if (!orderArchiver.mayContain(startDate, status)) {
+                orders.forEach(consumer);
+                return;
+            }
+            try (Stream<OrderResponse> archived =
+                         orderArchiveRepository.stream(customerId, startDate, endDate, status)) {
+                mergeInCreationOrder(archived.iterator(), orders.iterator(), consumer);
+            }
+        }
+    }
+
+    /**
+     * Archived orders followed by the hot ones. The hot table is read first, so an order archived in between can
+     * show up in both and is only kept once.
+     */
+    static Stream<OrderResponse> withArchived(List<OrderResponse> archived, List<OrderResponse> orders) {
+        Set<Long> hotIds = orders.stream().map(OrderResponse::getId).collect(Collectors.toSet());
+        return Stream.concat(archived.stream().filter(order -> !hotIds.contains(order.getId())), orders.stream());
+    }
+
+    private static void mergeInCreationOrder(Iterator<OrderResponse> left, Iterator<OrderResponse> right,
+                                             Consumer<OrderResponse> consumer) {
+        OrderResponse nextLeft = left.hasNext() ? left.next() : null;
+        OrderResponse nextRight = right.hasNext() ? right.next() : null;
+        while (nextLeft != null || nextRight != null) {
+            int comparison = nextLeft == null ? 1
+                    : nextRight == null ? -1
+                    : CREATION_ORDER.compare(nextLeft, nextRight);
+            if (comparison <= 0) {
+                consumer.accept(nextLeft);
+                nextLeft = left.hasNext() ? left.next() : null;
+            }
+            if (comparison >= 0) {
+                // An order archived while both were being read is only sent once
+                if (comparison > 0) {
+                    consumer.accept(nextRight);
+                }
+                nextRight = right.hasNext() ? right.next() : null;
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void ensureCustomerExists(Long customerId) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("Customer not found");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public String getOrderAssetName(Long orderId, Long customerId) {
+        return orderRepository.findAssetNameByIdAndCustomerId(orderId, customerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, List<Long>> groupOrderIdsByAsset(List<Long> orderIds) {
+        Map<Long, String> assetNames = new HashMap<>();
+        for (Object[] row : orderRepository.findAssetNamesByIdIn(orderIds)) {
+            assetNames.put((Long) row[0], (String) row[1]);
+        }
+
+        Map<String, List<Long>> orderIdsByAsset = new LinkedHashMap<>();
+        for (Long orderId : orderIds) {
+            String assetName = assetNames.get(orderId);
+            if (assetName != null) {
+                orderIdsByAsset.computeIfAbsent(assetName, name -> new ArrayList<>()).add(orderId);
+            }
+        }
+        return orderIdsByAsset;
+    }
+
+    @Timed("brokerage.orders.delete")
     public void deleteOrder(Long orderId, Long customerId) {
         Customer customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
 
-        Order order = orderRepository.findByIdAndCustomer(orderId, customer)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        Order order = orderRepository.findByIdAndCustomer(orderId, customer).orElse(null);
+        if (order == null) {
+            if (orderArchiveRepository.existsByIdAndCustomerId(orderId, customerId)) {
+                // Only terminal orders are archived
+                countRejection("invalid_order_status");
+                throw new InvalidOrderStatusException("Only PENDING orders can be deleted");
+            }
+            throw new ResourceNotFoundException("Order not found");
+        }
 
         if (order.getStatus() != Status.PENDING) {
+            countRejection("invalid_order_status");
             throw new InvalidOrderStatusException("Only PENDING orders can be deleted");
         }
 
+        Amount remainingSize = order.getRemainingAmount();
         if (order.getOrderSide() == Side.BUY) {
-            Asset tryAsset = assetService.getOrCreateAsset(customer, "TRY");
-            BigDecimal amountToReturn = order.getSize().multiply(order.getPrice());
-            assetService.updateAssetBalance(tryAsset, BigDecimal.ZERO, amountToReturn);
+            assetService.release(customer, Instrument.SETTLEMENT_CURRENCY,
+                    remainingSize.multiply(Amount.of(order.getPrice())));
         } else {
-            Asset assetToReturn = assetService.getOrCreateAsset(customer, order.getAssetName());
-            assetService.updateAssetBalance(assetToReturn, BigDecimal.ZERO, order.getSize());
+            assetService.release(customer, order.getAssetName(), remainingSize);
         }
 
+        matchingEngine.remove(order);
         order.setStatus(Status.CANCELED);
         orderRepository.save(order);
+        customerEventPublisher.publishOrder(order);
     }
 
-    public void matchOrders(List<Long> orderIds) {
+    @Timed("brokerage.orders.match")
+    public List<MatchOrderResult> matchOrders(List<Long> orderIds) {
+        Map<Long, Order> orders = orderRepository.findAllById(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        List<MatchOrderResult> results = new ArrayList<>(orderIds.size());
+        BalanceChangeSet changeSet = new BalanceChangeSet();
+
         for (Long orderId : orderIds) {
-            Order order = orderRepository.findById(orderId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderId));
-            
+            Order order = orders.get(orderId);
+            if (order == null) {
+                countRejection("order_not_found");
+                results.add(MatchOrderResult.failed(orderId, "Order not found: " + orderId));
+                continue;
+            }
             if (order.getStatus() != Status.PENDING) {
-                throw new InvalidOrderStatusException("Order " + orderId + " is not PENDING");
+                countRejection("invalid_order_status");
+                results.add(MatchOrderResult.failed(orderId, "Order " + orderId + " is not PENDING"));
+                continue;
             }
 
             Customer customer = order.getCustomer();
-            
+            Amount remainingSize = order.getRemainingAmount();
+            Amount amount = remainingSize.multiply(Amount.of(order.getPrice()));
+
             if (order.getOrderSide() == Side.BUY) {
-                Asset boughtAsset = assetService.getOrCreateAsset(customer, order.getAssetName());
-                assetService.updateAssetBalance(boughtAsset, order.getSize(), order.getSize());
+                changeSet.add(customer, Instrument.SETTLEMENT_CURRENCY, amount.negate(), Amount.ZERO);
+                changeSet.add(customer, order.getAssetName(), remainingSize, remainingSize);
             } else {
-                Asset tryAsset = assetService.getOrCreateAsset(customer, "TRY");
-                BigDecimal amount = order.getSize().multiply(order.getPrice());
-                assetService.updateAssetBalance(tryAsset, amount, amount);
+                changeSet.add(customer, order.getAssetName(), remainingSize.negate(), Amount.ZERO);
+                changeSet.add(customer, Instrument.SETTLEMENT_CURRENCY, amount, amount);
             }
-            
+
+            matchingEngine.remove(order);
+            order.setFilledSize(order.getSize());
             order.setStatus(Status.MATCHED);
-            orderRepository.save(order);
+            settlementService.recordMatchLag(order);
+            customerEventPublisher.publishOrder(order);
+            results.add(MatchOrderResult.matched(orderId));
         }
+
+        assetService.applyChangesInBatch(changeSet);
+        return results;
+    }
+
+    private void countRejection(String reason) {
+        meterRegistry.counter("brokerage.orders.rejected", "reason", reason).increment();
     }
 
     private OrderResponse toOrderResponse(Order order) {
@@ -132,8 +461,13 @@ public class OrderService {
                 .orderSide(order.getOrderSide())
                 .size(order.getSize())
                 .price(order.getPrice())
+                .filledSize(order.getFilledSize())
                 .status(order.getStatus())
                 .createDate(order.getCreateDate())
                 .build();
     }
-}
\ No newline at end of file
+
+    private record ReservationKey(Long customerId, String assetName) {}
+
+    private record OrderOutcome(Order order, String rejection) {}
+}
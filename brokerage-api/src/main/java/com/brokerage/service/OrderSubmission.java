@@ -0,0 +1,6 @@
+package com.brokerage.service;
+
+import com.brokerage.dto.CreateOrderRequest;
+
+public record OrderSubmission(String clientOrderId, CreateOrderRequest request) {
+}
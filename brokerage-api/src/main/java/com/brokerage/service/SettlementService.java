@@ -0,0 +1,85 @@
+package com.brokerage.service;
+
+import com.brokerage.entity.Instrument;
+import com.brokerage.entity.Order;
+import com.brokerage.entity.Status;
+import com.brokerage.exception.ResourceNotFoundException;
+import com.brokerage.matching.Fill;
+import com.brokerage.money.Amount;
+import com.brokerage.notification.CustomerEventPublisher;
+import com.brokerage.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class SettlementService {
+    private final OrderRepository orderRepository;
+    private final AssetService assetService;
+    private final CustomerEventPublisher customerEventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    public void settle(List<Fill> fills) {
+        BalanceChangeSet changeSet = new BalanceChangeSet();
+
+        for (Fill fill : fills) {
+            Order buyOrder = findOrder(fill.buyOrderId());
+            Order sellOrder = findOrder(fill.sellOrderId());
+            Amount size = Amount.of(fill.size());
+            Amount notional = size.multiply(Amount.of(fill.price()));
+            Amount reserved = releasedReservation(buyOrder, size);
+
+            changeSet.add(buyOrder.getCustomer(), Instrument.SETTLEMENT_CURRENCY, notional.negate(),
+                    reserved.subtract(notional));
+            changeSet.add(buyOrder.getCustomer(), buyOrder.getAssetName(), size, size);
+            changeSet.add(sellOrder.getCustomer(), sellOrder.getAssetName(), size.negate(), Amount.ZERO);
+            changeSet.add(sellOrder.getCustomer(), Instrument.SETTLEMENT_CURRENCY, notional, notional);
+
+            applyFill(buyOrder, fill.size());
+            applyFill(sellOrder, fill.size());
+        }
+
+        assetService.applyChanges(changeSet);
+    }
+
+    private void applyFill(Order order, BigDecimal size) {
+        order.setFilledSize(order.getFilledSize().add(size));
+        if (order.getRemainingSize().signum() <= 0) {
+            order.setStatus(Status.MATCHED);
+            recordMatchLag(order);
+        }
+        orderRepository.save(order);
+        customerEventPublisher.publishOrder(order);
+    }
+
+    /**
+     * The part of a buy order's reservation that a fill releases: the amount reserved for its remaining size before
+     * the fill minus the amount reserved for it after. The reservation is rounded the same way at creation and at
+     * cancellation, so the releases of all fills and of a cancellation add up to exactly what was reserved.
+     */
+    private static Amount releasedReservation(Order buyOrder, Amount size) {
+        Amount price = Amount.of(buyOrder.getPrice());
+        Amount remaining = buyOrder.getRemainingAmount();
+        return remaining.multiply(price).subtract(remaining.subtract(size).multiply(price));
+    }
+
+    public void recordMatchLag(Order order) {
+        if (order.getCreateDate() != null) {
+            meterRegistry.timer("brokerage.matching.lag")
+                    .record(Duration.between(order.getCreateDate(), LocalDateTime.now()));
+        }
+    }
+
+    private Order findOrder(long orderId) {
+        return orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderId));
+    }
+}
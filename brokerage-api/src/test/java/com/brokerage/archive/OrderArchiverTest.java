@@ -0,0 +1,91 @@
+package com.brokerage.archive;
+
+import com.brokerage.dto.OrderResponse;
+import com.brokerage.entity.Customer;
+import com.brokerage.entity.Order;
+import com.brokerage.entity.Side;
+import com.brokerage.entity.Status;
+import com.brokerage.exception.InvalidOrderStatusException;
+import com.brokerage.repository.CustomerRepository;
+import com.brokerage.repository.OrderArchiveRepository;
+import com.brokerage.repository.OrderRepository;
+import com.brokerage.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class OrderArchiverTest {
+
+    @Autowired
+    private OrderArchiver orderArchiver;
+
+    @Autowired
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void archive_MovesOnlyTerminalOrdersBeforeCutoff() {
+        Customer customer = customerRepository.findByUsername("customer1").orElseThrow();
+        LocalDateTime createDate = LocalDateTime.of(2002, 1, 1, 9, 0);
+        Order canceled = saveOrder(customer, Status.CANCELED, createDate);
+        Order pending = saveOrder(customer, Status.PENDING, createDate);
+        try {
+            assertEquals(1, orderArchiver.archive(createDate.plusDays(1)));
+
+            assertTrue(orderRepository.findById(canceled.getId()).isEmpty());
+            assertTrue(orderRepository.findById(pending.getId()).isPresent());
+            List<OrderResponse> archived = orderArchiveRepository.findResponses(
+                    customer.getId(), createDate.minusDays(1), createDate.plusDays(1), null);
+            assertEquals(List.of(canceled.getId()), archived.stream().map(OrderResponse::getId).toList());
+            assertEquals(Status.CANCELED, archived.get(0).getStatus());
+            assertTrue(orderArchiver.mayContain(createDate, null));
+            assertFalse(orderArchiver.mayContain(createDate, Status.PENDING));
+        } finally {
+            orderRepository.deleteById(pending.getId());
+        }
+    }
+
+    @Test
+    void deleteOrder_Archived_RejectedAsNotPending() {
+        Customer customer = customerRepository.findByUsername("customer1").orElseThrow();
+        LocalDateTime createDate = LocalDateTime.of(2001, 1, 1, 9, 0);
+        Order matched = saveOrder(customer, Status.MATCHED, createDate);
+        orderArchiver.archive(createDate.plusDays(1));
+
+        assertTrue(orderArchiveRepository.existsByIdAndCustomerId(matched.getId(), customer.getId()));
+        assertThrows(InvalidOrderStatusException.class,
+                () -> orderService.deleteOrder(matched.getId(), customer.getId()));
+    }
+
+    private Order saveOrder(Customer customer, Status status, LocalDateTime createDate) {
+        Order order = orderRepository.save(Order.builder()
+                .customer(customer)
+                .assetName("AAPL")
+                .orderSide(Side.SELL)
+                .size(new BigDecimal("1"))
+                .price(new BigDecimal("100"))
+                .status(status)
+                .build());
+        jdbcTemplate.update("UPDATE orders SET create_date = ? WHERE id = ?", createDate, order.getId());
+        return order;
+    }
+}
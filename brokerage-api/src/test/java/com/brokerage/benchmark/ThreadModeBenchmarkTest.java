@@ -0,0 +1,130 @@
+package com.brokerage.benchmark;
+
+import com.brokerage.BrokerageApiApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the same authenticated request mix against the application with platform and with virtual request
+ * threads and prints throughput and latency percentiles for each. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class ThreadModeBenchmarkTest {
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 400);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20_000);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("benchmark.warmup-requests", 2_000);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void compareThreadModes() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%-9s %10s %10s %10s %10s %7s%n", "mode", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        platform.print("platform");
+        virtual.print("virtual");
+
+        assertEquals(0, platform.errors());
+        assertEquals(0, virtual.errors());
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BrokerageApiApplication.class)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.jpa.show-sql=false",
+                        "logging.level.com.brokerage=INFO",
+                        "logging.level.org.springframework.security=INFO")
+                .run()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            String token = login(client, baseUrl);
+
+            execute(client, baseUrl, token, WARMUP_REQUESTS);
+            return execute(client, baseUrl, token, REQUESTS);
+        }
+    }
+
+    private Result execute(HttpClient client, String baseUrl, String token, int requests) throws Exception {
+        HttpRequest[] mix = {
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/assets?customerId=2"))
+                        .header("Authorization", "Bearer " + token).GET().build(),
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders?customerId=2"
+                                + "&startDate=2000-01-01T00:00:00&endDate=2100-01-01T00:00:00"))
+                        .header("Authorization", "Bearer " + token).GET().build()
+        };
+
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        long start = System.nanoTime();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < CONCURRENCY; c++) {
+                futures.add(clients.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < requests) {
+                        long requestStart = System.nanoTime();
+                        HttpResponse<Void> response = client.send(mix[i % mix.length], HttpResponse.BodyHandlers.discarding());
+                        latencies[i] = System.nanoTime() - requestStart;
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new Result(requests / (elapsed / 1e9), percentile(latencies, 0.50), percentile(latencies, 0.99),
+                latencies[latencies.length - 1] / 1e6, errors.get());
+    }
+
+    private String login(HttpClient client, String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"customer1\",\"password\":\"password123\"}"))
+                .build();
+        JsonNode body = objectMapper.readTree(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+        return body.get("token").asText();
+    }
+
+    private double percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1e6;
+    }
+
+    private record Result(double throughput, double p50Ms, double p99Ms, double maxMs, int errors) {
+        void print(String mode) {
+            System.out.printf("%-9s %10.0f %10.2f %10.2f %10.2f %7d%n", mode, throughput, p50Ms, p99Ms, maxMs, errors);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.brokerage.controller;
+
+import com.brokerage.notification.CustomerEventPublisher;
+import com.brokerage.security.JwtPrincipal;
+import com.brokerage.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class EventControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CustomerEventPublisher customerEventPublisher;
+
+    @MockBean
+    private OrderService orderService;
+
+    @Test
+    void subscribe_OtherCustomer_Forbidden() throws Exception {
+        mockMvc.perform(get("/api/events")
+                .param("customerId", "3")
+                .with(authentication(caller(2L, "CUSTOMER"))))
+                .andExpect(status().isForbidden());
+
+        verify(customerEventPublisher, never()).subscribe(anyLong());
+    }
+
+    @Test
+    void subscribe_Admin_AnyCustomer() throws Exception {
+        mockMvc.perform(get("/api/events")
+                .param("customerId", "3")
+                .with(authentication(caller(1L, "ADMIN"))));
+
+        verify(customerEventPublisher).subscribe(3L);
+    }
+
+    private static Authentication caller(Long customerId, String role) {
+        return new UsernamePasswordAuthenticationToken(new JwtPrincipal("user" + customerId, customerId, role),
+                null, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
+}
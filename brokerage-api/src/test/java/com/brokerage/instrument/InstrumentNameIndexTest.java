@@ -0,0 +1,50 @@
+package com.brokerage.instrument;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentNameIndexTest {
+
+    private InstrumentNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InstrumentNameIndex();
+        index.add(1, "TRY");
+        index.add(2, "AAPL");
+        index.add(3, "GOOGL");
+        index.add(4, "AMZN");
+        index.add(5, "GOOG");
+    }
+
+    @Test
+    void containing_ShortFragment_IgnoresCase() {
+        assertArrayEquals(new int[]{2, 4}, index.containing("a"));
+        assertArrayEquals(new int[]{3, 5}, index.containing("oo"));
+        assertArrayEquals(new int[]{2}, index.containing("Apl"));
+    }
+
+    @Test
+    void containing_LongFragment_DropsTrigramFalsePositives() {
+        index.add(6, "XYZAB");
+        index.add(7, "ABXYZ");
+
+        assertArrayEquals(new int[]{6}, index.containing("xyzab"));
+        assertArrayEquals(new int[]{3}, index.containing("oogl"));
+        assertArrayEquals(new int[0], index.containing("aaplx"));
+    }
+
+    @Test
+    void containing_EmptyFragment_ReturnsAll() {
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5}, index.containing(""));
+    }
+
+    @Test
+    void startingWith_ReturnsNameOrder() {
+        assertArrayEquals(new int[]{5, 3}, index.startingWith("go"));
+        assertArrayEquals(new int[]{2, 4}, index.startingWith("A"));
+        assertArrayEquals(new int[0], index.startingWith("z"));
+    }
+}
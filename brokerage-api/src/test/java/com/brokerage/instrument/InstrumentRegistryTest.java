@@ -0,0 +1,73 @@
+package com.brokerage.instrument;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class InstrumentRegistryTest {
+
+    @Autowired
+    private InstrumentRegistry instrumentRegistry;
+
+    @Autowired
+    private InstrumentConverter instrumentConverter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void idOf_Committed_PublishedAfterCommit() {
+        String name = newName();
+
+        int id = new TransactionTemplate(transactionManager).execute(status -> {
+            int registered = instrumentRegistry.idOf(name);
+            assertEquals(registered, instrumentRegistry.find(name).orElseThrow());
+            assertEquals(name, instrumentRegistry.nameOf(registered));
+            return registered;
+        });
+
+        assertEquals(id, instrumentRegistry.find(name).orElseThrow());
+        assertEquals(1, rowCount(name));
+    }
+
+    @Test
+    void idOf_RolledBack_LeavesNothingBehind() {
+        String name = newName();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            instrumentRegistry.idOf(name);
+            status.setRollbackOnly();
+        });
+
+        assertTrue(instrumentRegistry.find(name).isEmpty());
+        assertEquals(0, rowCount(name));
+    }
+
+    @Test
+    void convertToDatabaseColumn_UnknownName_DoesNotRegister() {
+        String name = newName();
+
+        assertEquals(InstrumentRegistry.UNKNOWN_ID, instrumentConverter.convertToDatabaseColumn(name));
+        assertTrue(instrumentRegistry.find(name).isEmpty());
+        assertEquals(0, rowCount(name));
+    }
+
+    private int rowCount(String name) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM instruments WHERE name = ?", Integer.class, name);
+    }
+
+    private static String newName() {
+        return "TEST-" + UUID.randomUUID();
+    }
+}
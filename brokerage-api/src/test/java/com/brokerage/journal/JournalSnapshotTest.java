@@ -0,0 +1,87 @@
+package com.brokerage.journal;
+
+import com.brokerage.entity.Side;
+import com.brokerage.entity.Status;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void write_ThenLoad_KeepsEveryOrderBalancesAndHighestOrderId() throws Exception {
+        RecoveredState state = new RecoveredState();
+        JournaledOrder pending = order(1, Status.PENDING);
+        JournaledOrder matched = order(2, Status.MATCHED);
+        JournaledOrder canceled = order(3, Status.CANCELED);
+        state.order(pending);
+        state.order(matched);
+        state.order(canceled);
+        state.balance(7, "TRY", 0, -150000);
+        state.balance(7, "TRY", 0, 50000);
+        Path path = dir.resolve("orders.snapshot");
+
+        new JournalSnapshot(42, 4096, state).write(path);
+        JournalSnapshot loaded = JournalSnapshot.load(path);
+
+        assertEquals(42, loaded.journalId());
+        assertEquals(4096, loaded.position());
+        assertEquals(Set.of(pending, matched, canceled), Set.copyOf(loaded.state().orders()));
+        assertEquals(3, loaded.state().maxOrderId());
+        assertEquals(new BigDecimal("-1000.00"), loaded.state().balanceChanges().get(0).usableSize());
+    }
+
+    @Test
+    void load_ThenLaterEntries_SameStateAsFullReplay() throws Exception {
+        RecoveredState full = new RecoveredState();
+        RecoveredState upToSnapshot = new RecoveredState();
+        for (RecoveredState state : List.of(full, upToSnapshot)) {
+            state.order(order(1, Status.PENDING));
+            state.balance(7, "TRY", 0, -150000);
+        }
+        Path path = dir.resolve("orders.snapshot");
+        new JournalSnapshot(42, 4096, upToSnapshot).write(path);
+        RecoveredState restored = JournalSnapshot.load(path).state();
+
+        // Entries appended after the snapshot: the order fills and the balance change is settled
+        for (RecoveredState state : List.of(full, restored)) {
+            state.order(order(1, Status.MATCHED));
+            state.balance(7, "TRY", -150000, 0);
+        }
+
+        assertEquals(Set.copyOf(full.orders()), Set.copyOf(restored.orders()));
+        // Net changes, to be added to the seeded balances, not absolute balances
+        assertEquals(full.balanceChanges(), restored.balanceChanges());
+        assertEquals(new BigDecimal("-1500.00"), restored.balanceChanges().get(0).size());
+    }
+
+    @Test
+    void load_OtherVersion_ReturnsNull() throws Exception {
+        Path path = dir.resolve("orders.snapshot");
+        Files.write(path, ByteBuffer.allocate(2 * Integer.BYTES).putInt(0x42534E50).putInt(1).array());
+
+        assertNull(JournalSnapshot.load(path));
+    }
+
+    @Test
+    void load_MissingFile_ReturnsNull() throws Exception {
+        assertNull(JournalSnapshot.load(dir.resolve("missing.snapshot")));
+    }
+
+    private static JournaledOrder order(long id, Status status) {
+        return new JournaledOrder(id, 7, "AAPL", Side.BUY, status, new BigDecimal("10.00"),
+                new BigDecimal("150.00"), BigDecimal.ZERO.setScale(2), LocalDateTime.of(2026, 1, 2, 10, 30, 0, 500));
+    }
+}
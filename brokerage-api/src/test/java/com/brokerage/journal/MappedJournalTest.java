@@ -0,0 +1,74 @@
+package com.brokerage.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedJournalTest {
+    private static final int CHUNK_SIZE = 256;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reopen_ReadsRecordsAcrossChunks() throws Exception {
+        Path path = dir.resolve("orders.journal");
+        try (MappedJournal journal = open(path, body -> fail("new journal is empty"))) {
+            for (long i = 0; i < 100; i++) {
+                journal.append(List.of(record(i)));
+            }
+        }
+
+        List<Long> read = readAll(path);
+
+        assertEquals(100, read.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, read.get(i));
+        }
+    }
+
+    @Test
+    void reopen_StopsAtTornRecordAndAppendsAfterLastIntactOne() throws Exception {
+        Path path = dir.resolve("orders.journal");
+        try (MappedJournal journal = open(path, body -> { })) {
+            journal.append(List.of(record(1), record(2), record(3)));
+        }
+        // Flip a byte of the third record's body, as if the crash happened while it was being written
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            long thirdBody = 20 + 2 * (4 + 8 + 4) + 4;
+            file.seek(thirdBody);
+            file.write(0x7f);
+        }
+
+        try (MappedJournal journal = open(path, body -> { })) {
+            journal.append(List.of(record(4)));
+        }
+
+        assertEquals(List.of(1L, 2L, 4L), readAll(path));
+    }
+
+    private List<Long> readAll(Path path) throws Exception {
+        List<Long> read = new ArrayList<>();
+        try (MappedJournal journal = open(path, body -> read.add(body.getLong()))) {
+            return read;
+        }
+    }
+
+    private static MappedJournal open(Path path, Consumer<ByteBuffer> reader) throws Exception {
+        MappedJournal journal = new MappedJournal(path, CHUNK_SIZE);
+        journal.recover(0, reader);
+        return journal;
+    }
+
+    private static ByteBuffer record(long value) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(0, value);
+    }
+}
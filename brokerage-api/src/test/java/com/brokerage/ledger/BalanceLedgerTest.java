@@ -0,0 +1,144 @@
+package com.brokerage.ledger;
+
+import com.brokerage.exception.InsufficientBalanceException;
+import com.brokerage.instrument.InstrumentRegistry;
+import com.brokerage.journal.OrderJournal;
+import com.brokerage.repository.AssetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceLedgerTest {
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private OrderJournal orderJournal;
+
+    @Mock
+    private InstrumentRegistry instrumentRegistry;
+
+    private BalanceLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(instrumentRegistry.idOf("TRY")).thenReturn(1);
+        lenient().when(instrumentRegistry.nameOf(1)).thenReturn("TRY");
+        lenient().when(instrumentRegistry.idOf("AAPL")).thenReturn(2);
+        lenient().when(instrumentRegistry.nameOf(2)).thenReturn("AAPL");
+        ledger = new BalanceLedger(assetRepository, instrumentRegistry, orderJournal);
+        ledger.apply(2L, "TRY", new BigDecimal("1000"), new BigDecimal("1000"));
+        ledger.drainDirty();
+    }
+
+    @Test
+    void reserve_ReducesUsableSizeOnly() {
+        ledger.reserve(2L, "TRY", new BigDecimal("250.50"));
+
+        LedgerBalance balance = ledger.balancesOf(2L).get(0);
+        assertEquals("TRY", balance.assetName());
+        assertEquals(100000, balance.size());
+        assertEquals(74950, balance.usableSize());
+    }
+
+    @Test
+    void reserve_InsufficientBalance() {
+        assertThrows(InsufficientBalanceException.class,
+                () -> ledger.reserve(2L, "TRY", new BigDecimal("1000.01")));
+
+        assertEquals(100000, ledger.balancesOf(2L).get(0).usableSize());
+    }
+
+    @Test
+    void reserve_InTransaction_HeldUntilCommit() {
+        List<TransactionSynchronization> transaction = inTransaction(() -> ledger.reserve(2L, "TRY", new BigDecimal("600")));
+
+        assertEquals(100000, ledger.balancesOf(2L).get(0).usableSize());
+        assertThrows(InsufficientBalanceException.class, () -> ledger.reserve(2L, "TRY", new BigDecimal("500")));
+
+        complete(transaction, true);
+
+        assertEquals(40000, ledger.balancesOf(2L).get(0).usableSize());
+        assertEquals(List.of(new LedgerDelta(2L, 1, "TRY", 0, -60000)), ledger.drainDirty());
+    }
+
+    @Test
+    void drainDirty_CoalescesChangesPerBalance() {
+        ledger.reserve(2L, "TRY", new BigDecimal("100"));
+        ledger.apply(2L, "TRY", new BigDecimal("-100"), BigDecimal.ZERO);
+        ledger.apply(2L, "AAPL", new BigDecimal("5"), new BigDecimal("5"));
+
+        assertEquals(List.of(new LedgerDelta(2L, 1, "TRY", -10000, -10000), new LedgerDelta(2L, 2, "AAPL", 500, 500)),
+                ledger.drainDirty());
+        assertTrue(ledger.drainDirty().isEmpty());
+    }
+
+    @Test
+    void restore_RequeuesFailedFlush() {
+        ledger.reserve(2L, "TRY", new BigDecimal("100"));
+        List<LedgerDelta> failed = ledger.drainDirty();
+
+        ledger.reserve(2L, "TRY", new BigDecimal("50"));
+        ledger.restore(failed);
+
+        assertEquals(List.of(new LedgerDelta(2L, 1, "TRY", 0, -15000)), ledger.drainDirty());
+    }
+
+    @Test
+    void reserve_RolledBack_NothingToFlush() {
+        complete(inTransaction(() -> ledger.reserve(2L, "TRY", new BigDecimal("600"))), false);
+
+        assertTrue(ledger.drainDirty().isEmpty());
+    }
+
+    @Test
+    void reserve_RolledBack_ReleasesHold() {
+        List<TransactionSynchronization> transaction = inTransaction(() -> ledger.reserve(2L, "TRY", new BigDecimal("600")));
+
+        complete(transaction, false);
+
+        assertEquals(100000, ledger.balancesOf(2L).get(0).usableSize());
+        ledger.reserve(2L, "TRY", new BigDecimal("1000"));
+        assertEquals(0, ledger.balancesOf(2L).get(0).usableSize());
+    }
+
+    @Test
+    void balancesOf_UnknownCustomer() {
+        assertTrue(ledger.balancesOf(99L).isEmpty());
+        assertFalse(ledger.hasAccount(99L));
+    }
+
+    private static List<TransactionSynchronization> inTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void complete(List<TransactionSynchronization> synchronizations, boolean commit) {
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (commit) {
+                synchronization.beforeCommit(false);
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(commit
+                    ? TransactionSynchronization.STATUS_COMMITTED
+                    : TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.brokerage.matching;
+
+import com.brokerage.entity.Side;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderBookTest {
+
+    private OrderBook book;
+
+    @BeforeEach
+    void setUp() {
+        book = new OrderBook("AAPL");
+    }
+
+    @Test
+    void match_NoCross_RestsOrder() {
+        book.match(order(1, Side.SELL, "151", "10"));
+        List<Fill> fills = book.match(order(2, Side.BUY, "150", "10"));
+
+        assertTrue(fills.isEmpty());
+        assertEquals(2, book.size());
+        assertEquals(new BigDecimal("150"), book.bestBid());
+        assertEquals(new BigDecimal("151"), book.bestAsk());
+    }
+
+    @Test
+    void match_BestPriceFirst_AtRestingPrice() {
+        book.match(order(1, Side.SELL, "152", "5"));
+        book.match(order(2, Side.SELL, "150", "5"));
+
+        List<Fill> fills = book.match(order(3, Side.BUY, "155", "5"));
+
+        assertEquals(1, fills.size());
+        assertEquals(new Fill(3, 2, new BigDecimal("150"), new BigDecimal("5")), fills.get(0));
+        assertFalse(book.contains(2));
+        assertTrue(book.contains(1));
+    }
+
+    @Test
+    void match_SamePrice_TimePriority() {
+        book.match(order(1, Side.BUY, "150", "5"));
+        book.match(order(2, Side.BUY, "150", "5"));
+
+        List<Fill> fills = book.match(order(3, Side.SELL, "150", "7"));
+
+        assertEquals(2, fills.size());
+        assertEquals(1, fills.get(0).buyOrderId());
+        assertEquals(new BigDecimal("5"), fills.get(0).size());
+        assertEquals(2, fills.get(1).buyOrderId());
+        assertEquals(new BigDecimal("2"), fills.get(1).size());
+        assertTrue(book.contains(2));
+        assertFalse(book.contains(3));
+    }
+
+    @Test
+    void match_PartialFill_RestsRemainder() {
+        book.match(order(1, Side.SELL, "150", "4"));
+
+        List<Fill> fills = book.match(order(2, Side.BUY, "150", "10"));
+
+        assertEquals(1, fills.size());
+        assertTrue(book.contains(2));
+        assertNull(book.bestAsk());
+        assertEquals(new BigDecimal("150"), book.bestBid());
+    }
+
+    @Test
+    void remove_DropsEmptyLevel() {
+        book.match(order(1, Side.BUY, "150", "5"));
+
+        assertTrue(book.remove(1));
+        assertFalse(book.remove(1));
+        assertNull(book.bestBid());
+        assertTrue(book.match(order(2, Side.SELL, "140", "5")).isEmpty());
+    }
+
+    @Test
+    void uncross_MatchesRestedCrossingOrdersAtEarlierPrice() {
+        book.rest(order(1, Side.SELL, "148", "5"));
+        book.rest(order(2, Side.BUY, "150", "8"));
+
+        List<Fill> fills = book.uncross(10);
+
+        assertEquals(List.of(new Fill(2, 1, new BigDecimal("148"), new BigDecimal("5"))), fills);
+        assertFalse(book.getDepth().isCrossed());
+        assertEquals(new PriceLevel(new BigDecimal("150"), new BigDecimal("3")), book.getDepth().best(Side.BUY));
+    }
+
+    @Test
+    void depth_TracksRestFillAndRemove() {
+        book.match(order(1, Side.BUY, "150", "5"));
+        book.match(order(2, Side.BUY, "150", "3"));
+        book.match(order(3, Side.BUY, "149", "4"));
+        book.match(order(4, Side.SELL, "150", "6"));
+        book.remove(3);
+
+        MarketDepth depth = book.getDepth();
+        assertEquals(List.of(new PriceLevel(new BigDecimal("150"), new BigDecimal("2"))), depth.levels(Side.BUY, 10));
+        assertTrue(depth.levels(Side.SELL, 10).isEmpty());
+
+        book.match(order(5, Side.SELL, "151", "7"));
+        book.match(order(6, Side.SELL, "152", "1"));
+        assertEquals(List.of(new PriceLevel(new BigDecimal("151"), new BigDecimal("7"))), depth.levels(Side.SELL, 1));
+        assertEquals(new PriceLevel(new BigDecimal("150"), new BigDecimal("2")), depth.best(Side.BUY));
+    }
+
+    @Test
+    void counterparties_StopsAtLimitAndSize() {
+        book.match(order(1, Side.SELL, "150", "5"));
+        book.match(order(2, Side.SELL, "151", "5"));
+        book.match(order(3, Side.SELL, "151", "5"));
+        book.match(order(4, Side.SELL, "153", "5"));
+
+        assertEquals(Set.of(1L, 2L), book.counterparties(Side.BUY, new BigDecimal("152"), new BigDecimal("6")));
+        assertEquals(Set.of(1L, 2L, 3L), book.counterparties(Side.BUY, new BigDecimal("152"), new BigDecimal("50")));
+        assertTrue(book.counterparties(Side.BUY, new BigDecimal("149"), new BigDecimal("5")).isEmpty());
+        assertEquals(4, book.size());
+    }
+
+    private BookOrder order(long id, Side side, String price, String size) {
+        return new BookOrder(id, id, side, new BigDecimal(price), new BigDecimal(size));
+    }
+}
@@ -0,0 +1,102 @@
+package com.brokerage.reservation;
+
+import com.brokerage.entity.Asset;
+import com.brokerage.entity.Customer;
+import com.brokerage.exception.BalanceContentionException;
+import com.brokerage.exception.InsufficientBalanceException;
+import com.brokerage.repository.AssetRepository;
+import com.brokerage.repository.CustomerRepository;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class BalanceLockingContentionTest {
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("200");
+
+    @Autowired
+    private BalanceReservationService balanceReservationService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private BalanceCheckpointer balanceCheckpointer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @ParameterizedTest
+    @EnumSource(LockingMode.class)
+    void concurrentReservations_NeverOverdraw(LockingMode mode) throws Exception {
+        Customer customer = new Customer();
+        customer.setUsername("contention-" + mode.name().toLowerCase());
+        customer.setPassword("password");
+        customer.setRole("CUSTOMER");
+        customerRepository.save(customer);
+
+        Long assetId = assetRepository.save(Asset.builder()
+                .customer(customer)
+                .assetName("TRY")
+                .size(INITIAL_BALANCE)
+                .usableSize(INITIAL_BALANCE)
+                .build()).getId();
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> {
+                            Asset asset = assetRepository.findById(assetId).orElseThrow();
+                            balanceReservationService.updateBalance(mode, asset, BigDecimal.ZERO, BigDecimal.ONE.negate());
+                        });
+                        reserved.incrementAndGet();
+                    } catch (InsufficientBalanceException | BalanceContentionException | DataAccessException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Folds the ENTRIES mode changes into the asset row; the other modes leave no entries behind
+        balanceCheckpointer.checkpoint();
+        Asset result = assetRepository.findById(assetId).orElseThrow();
+        BigDecimal expectedUsable = INITIAL_BALANCE.subtract(BigDecimal.valueOf(reserved.get()));
+
+        assertTrue(result.getUsableSize().signum() >= 0);
+        assertEquals(0, expectedUsable.compareTo(result.getUsableSize()));
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD, reserved.get() + rejected.get());
+    }
+}
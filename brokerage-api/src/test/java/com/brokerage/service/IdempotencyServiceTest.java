@@ -0,0 +1,103 @@
+package com.brokerage.service;
+
+import com.brokerage.exception.IdempotencyKeyConflictException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class IdempotencyServiceTest {
+    private static final String OPERATION = "CREATE_ORDER";
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Test
+    void execute_SameRequest_ReplaysStoredResponse() {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger runs = new AtomicInteger();
+
+        String first = idempotencyService.execute(key, 1L, OPERATION, Map.of("assetName", "AAPL"), String.class,
+                () -> "order-" + runs.incrementAndGet());
+        String second = idempotencyService.execute(key, 1L, OPERATION, Map.of("assetName", "AAPL"), String.class,
+                () -> "order-" + runs.incrementAndGet());
+
+        assertEquals("order-1", first);
+        assertEquals("order-1", second);
+        assertEquals(1, runs.get());
+        assertEquals("order-1", idempotencyService.findCached(key, 1L, OPERATION, Map.of("assetName", "AAPL"),
+                String.class).orElseThrow());
+    }
+
+    @Test
+    void execute_DifferentRequest_Conflicts() {
+        String key = UUID.randomUUID().toString();
+        idempotencyService.execute(key, 1L, OPERATION, Map.of("assetName", "AAPL"), String.class, () -> "order-1");
+
+        assertThrows(IdempotencyKeyConflictException.class, () -> idempotencyService.execute(
+                key, 1L, OPERATION, Map.of("assetName", "GOOGL"), String.class, () -> "order-2"));
+        assertThrows(IdempotencyKeyConflictException.class, () -> idempotencyService.findCached(
+                key, 1L, OPERATION, Map.of("assetName", "GOOGL"), String.class));
+    }
+
+    @Test
+    void execute_SameKeyForAnotherCustomer_RunsSeparately() {
+        String key = UUID.randomUUID().toString();
+        idempotencyService.execute(key, 1L, OPERATION, Map.of("assetName", "AAPL"), String.class, () -> "order-1");
+
+        assertEquals("order-2", idempotencyService.execute(
+                key, 2L, OPERATION, Map.of("assetName", "GOOGL"), String.class, () -> "order-2"));
+    }
+
+    @Test
+    void execute_ConcurrentDifferentRequests_SecondConflicts() throws Exception {
+        String key = UUID.randomUUID().toString();
+        CountDownLatch firstRunning = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> idempotencyService.execute(
+                    key, 1L, OPERATION, Map.of("assetName", "AAPL"), String.class, () -> {
+                        firstRunning.countDown();
+                        await(releaseFirst);
+                        return "order-1";
+                    }));
+            assertTrue(firstRunning.await(10, TimeUnit.SECONDS));
+
+            AtomicInteger secondRuns = new AtomicInteger();
+            Future<String> second = executor.submit(() -> idempotencyService.execute(
+                    key, 1L, OPERATION, Map.of("assetName", "GOOGL"), String.class, () -> {
+                        secondRuns.incrementAndGet();
+                        return "order-2";
+                    }));
+            releaseFirst.countDown();
+
+            assertEquals("order-1", first.get(10, TimeUnit.SECONDS));
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> second.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(IdempotencyKeyConflictException.class, failure.getCause());
+            assertEquals(0, secondRuns.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.brokerage.service;
+
+import com.brokerage.dto.AsyncOrderResponse;
+import com.brokerage.dto.AsyncOrderResponse.SubmissionStatus;
+import com.brokerage.dto.CreateOrderRequest;
+import com.brokerage.entity.Side;
+import com.brokerage.matching.OrderSequencer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderBatchCommitterTest {
+
+    @Mock
+    private OrderSequencer orderSequencer;
+
+    @Mock
+    private OrderService orderService;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OrderBatchCommitter committer;
+
+    @BeforeEach
+    void setUp() {
+        when(orderSequencer.submit(anyString(), any())).thenAnswer(invocation -> {
+            Supplier<?> command = invocation.getArgument(1);
+            return CompletableFuture.completedFuture(command.get());
+        });
+        committer = new OrderBatchCommitter(orderSequencer, orderService, meterRegistry);
+        ReflectionTestUtils.setField(committer, "queueCapacity", 100);
+        ReflectionTestUtils.setField(committer, "batchSize", 10);
+        ReflectionTestUtils.setField(committer, "resultTtlSeconds", 60L);
+        committer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        committer.stop();
+    }
+
+    @Test
+    void enqueue_Accepted_OnlyVisibleToSubmitterAndAdmin() {
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            List<OrderSubmission> submissions = invocation.getArgument(0);
+            return submissions.stream()
+                    .map(submission -> AsyncOrderResponse.accepted(submission.clientOrderId(), 42L))
+                    .toList();
+        });
+
+        AsyncOrderResponse queued = committer.enqueue(request(1L));
+
+        assertEquals(SubmissionStatus.QUEUED, queued.getStatus());
+        AsyncOrderResponse outcome = awaitOutcome(queued.getClientOrderId(), 1L);
+        assertEquals(SubmissionStatus.ACCEPTED, outcome.getStatus());
+        assertEquals(42L, outcome.getOrderId());
+        assertTrue(committer.find(queued.getClientOrderId(), 2L).isEmpty());
+        assertEquals(SubmissionStatus.ACCEPTED, committer.find(queued.getClientOrderId(), null).orElseThrow().getStatus());
+    }
+
+    @Test
+    void enqueue_GroupFails_RejectsEveryOrder() {
+        when(orderService.createOrders(anyList())).thenThrow(new IllegalStateException("boom"));
+
+        AsyncOrderResponse first = committer.enqueue(request(1L));
+        AsyncOrderResponse second = committer.enqueue(request(2L));
+
+        assertEquals(SubmissionStatus.REJECTED, awaitOutcome(first.getClientOrderId(), 1L).getStatus());
+        assertEquals(SubmissionStatus.REJECTED, awaitOutcome(second.getClientOrderId(), 2L).getStatus());
+        assertEquals(2, meterRegistry.counter("brokerage.orders.rejected", "reason", "processing_failed").count());
+    }
+
+    private AsyncOrderResponse awaitOutcome(String clientOrderId, Long customerId) {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            AsyncOrderResponse response = committer.find(clientOrderId, customerId).orElseThrow();
+            if (response.getStatus() != SubmissionStatus.QUEUED) {
+                return response;
+            }
+            Thread.onSpinWait();
+        }
+        return fail("Submission " + clientOrderId + " is still queued");
+    }
+
+    private CreateOrderRequest request(Long customerId) {
+        return new CreateOrderRequest(customerId, "AAPL", Side.BUY, new BigDecimal("1"), new BigDecimal("150"));
+    }
+}
@@ -0,0 +1,149 @@
+package com.brokerage.service;
+
+import com.brokerage.archive.OrderArchiver;
+import com.brokerage.dto.CountMode;
+import com.brokerage.dto.OrderCursor;
+import com.brokerage.dto.OrderResponse;
+import com.brokerage.dto.OrderSearchCriteria;
+import com.brokerage.dto.OrderSearchResponse;
+import com.brokerage.entity.Side;
+import com.brokerage.entity.Status;
+import com.brokerage.exception.BadRequestException;
+import com.brokerage.instrument.InstrumentRegistry;
+import com.brokerage.repository.OrderSearchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderSearchServiceTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 12, 31, 0, 0);
+
+    @Mock
+    private OrderSearchRepository orderSearchRepository;
+
+    @Mock
+    private InstrumentRegistry instrumentRegistry;
+
+    @Mock
+    private OrderArchiver orderArchiver;
+
+    @InjectMocks
+    private OrderSearchService orderSearchService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderSearchService, "countEstimateCap", 100L);
+    }
+
+    @Test
+    void search_Filters_PassedToRepositoryWithInstrumentId() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria("AAPL", Side.BUY, Status.PENDING,
+                new BigDecimal("100"), new BigDecimal("200"), START, END);
+        when(instrumentRegistry.find("AAPL")).thenReturn(OptionalInt.of(7));
+        when(orderSearchRepository.search(7, criteria, null, 3)).thenReturn(List.of(
+                orderResponse(1L, START.plusDays(1)),
+                orderResponse(2L, START.plusDays(2)),
+                orderResponse(3L, START.plusDays(3))));
+        when(orderSearchRepository.count(7, criteria)).thenReturn(3L);
+
+        OrderSearchResponse response = orderSearchService.search(criteria, null, 2, CountMode.EXACT);
+
+        assertEquals(List.of(1L, 2L), response.getOrders().stream().map(OrderResponse::getId).toList());
+        assertEquals(new OrderCursor(START.plusDays(2), 2L), OrderCursor.decode(response.getNextCursor()));
+        assertEquals(3L, response.getTotalCount());
+        assertTrue(response.getTotalCountExact());
+    }
+
+    @Test
+    void search_Cursor_ContinuesAfterIt() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria(null, null, null, null, null, null, null);
+        OrderCursor cursor = new OrderCursor(START, 5L);
+        when(orderSearchRepository.search(null, criteria, cursor, 11)).thenReturn(List.of(orderResponse(6L, START)));
+
+        OrderSearchResponse response = orderSearchService.search(criteria, cursor.encode(), 10, CountMode.NONE);
+
+        assertEquals(List.of(6L), response.getOrders().stream().map(OrderResponse::getId).toList());
+        assertNull(response.getNextCursor());
+        assertNull(response.getTotalCount());
+    }
+
+    @Test
+    void search_EstimatedCount_CappedIsNotExact() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria(null, null, Status.MATCHED, null, null, null, null);
+        when(orderSearchRepository.search(null, criteria, null, 11)).thenReturn(List.of());
+        when(orderSearchRepository.count(null, criteria, 100L)).thenReturn(100L);
+
+        OrderSearchResponse response = orderSearchService.search(criteria, null, 10, CountMode.ESTIMATE);
+
+        assertEquals(100L, response.getTotalCount());
+        assertFalse(response.getTotalCountExact());
+    }
+
+    @Test
+    void search_UnknownAsset_EmptyWithoutQuery() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria("NOPE", null, null, null, null, null, null);
+        when(instrumentRegistry.find("NOPE")).thenReturn(OptionalInt.empty());
+
+        OrderSearchResponse response = orderSearchService.search(criteria, null, 10, CountMode.EXACT);
+
+        assertTrue(response.getOrders().isEmpty());
+        assertEquals(0L, response.getTotalCount());
+        verifyNoInteractions(orderSearchRepository);
+    }
+
+    @Test
+    void search_InvertedPriceRange_BadRequest() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria(null, null, null,
+                new BigDecimal("200"), new BigDecimal("100"), null, null);
+
+        assertThrows(BadRequestException.class, () -> orderSearchService.search(criteria, null, 10, CountMode.NONE));
+        verifyNoInteractions(orderSearchRepository);
+    }
+
+    @Test
+    void search_InvertedDateRange_BadRequest() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria(null, null, null, null, null, END, START);
+
+        assertThrows(BadRequestException.class, () -> orderSearchService.search(criteria, null, 10, CountMode.NONE));
+        verifyNoInteractions(orderSearchRepository);
+    }
+
+    @Test
+    void search_MalformedCursor_BadRequest() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria(null, null, null, null, null, null, null);
+
+        assertThrows(BadRequestException.class,
+                () -> orderSearchService.search(criteria, "not-a-cursor", 10, CountMode.NONE));
+        verify(orderSearchRepository, never()).search(any(), any(), any(), anyInt());
+    }
+
+    private OrderResponse orderResponse(Long id, LocalDateTime createDate) {
+        return OrderResponse.builder()
+                .id(id)
+                .customerId(1L)
+                .assetName("AAPL")
+                .orderSide(Side.BUY)
+                .size(new BigDecimal("1"))
+                .price(new BigDecimal("150"))
+                .filledSize(BigDecimal.ZERO)
+                .status(Status.PENDING)
+                .createDate(createDate)
+                .build();
+    }
+}
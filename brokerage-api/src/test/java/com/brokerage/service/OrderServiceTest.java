@@ -1,26 +1,41 @@
 package com.brokerage.service;
 
+import com.brokerage.archive.OrderArchiver;
+import com.brokerage.dto.BatchOrderResult;
 import com.brokerage.dto.CreateOrderRequest;
+import com.brokerage.dto.MatchOrderResult;
 import com.brokerage.dto.OrderResponse;
 import com.brokerage.entity.*;
 import com.brokerage.exception.InsufficientBalanceException;
 import com.brokerage.exception.InvalidOrderStatusException;
 import com.brokerage.exception.ResourceNotFoundException;
+import com.brokerage.matching.Fill;
+import com.brokerage.matching.MatchingEngine;
+import com.brokerage.money.Amount;
+import com.brokerage.notification.CustomerEventPublisher;
 import com.brokerage.repository.CustomerRepository;
+import com.brokerage.repository.OrderArchiveRepository;
 import com.brokerage.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,12 +50,28 @@ class OrderServiceTest {
     @Mock
     private AssetService assetService;
 
+    @Mock
+    private MatchingEngine matchingEngine;
+
+    @Mock
+    private SettlementService settlementService;
+
+    @Mock
+    private CustomerEventPublisher customerEventPublisher;
+
+    @Mock
+    private OrderArchiver orderArchiver;
+
+    @Mock
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private OrderService orderService;
 
     private Customer testCustomer;
-    private Asset tryAsset;
-    private Asset stockAsset;
 
     @BeforeEach
     void setUp() {
@@ -48,22 +79,6 @@ class OrderServiceTest {
         testCustomer.setId(1L);
         testCustomer.setUsername("testuser");
         testCustomer.setRole("CUSTOMER");
-
-        tryAsset = Asset.builder()
-                .id(1L)
-                .customer(testCustomer)
-                .assetName("TRY")
-                .size(new BigDecimal("10000"))
-                .usableSize(new BigDecimal("10000"))
-                .build();
-
-        stockAsset = Asset.builder()
-                .id(2L)
-                .customer(testCustomer)
-                .assetName("AAPL")
-                .size(new BigDecimal("100"))
-                .usableSize(new BigDecimal("100"))
-                .build();
     }
 
     @Test
@@ -84,7 +99,6 @@ class OrderServiceTest {
                 .build();
 
         when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
-        when(assetService.getOrCreateAsset(testCustomer, "TRY")).thenReturn(tryAsset);
         when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
 
         OrderResponse response = orderService.createOrder(request);
@@ -93,7 +107,39 @@ class OrderServiceTest {
         assertEquals(1L, response.getId());
         assertEquals("AAPL", response.getAssetName());
         assertEquals(Side.BUY, response.getOrderSide());
-        verify(assetService).updateAssetBalance(tryAsset, BigDecimal.ZERO, new BigDecimal("-1500"));
+        verify(assetService).reserve(testCustomer, "TRY", Amount.of(new BigDecimal("1500")));
+        verify(matchingEngine).submit(savedOrder);
+    }
+
+    @Test
+    void createBuyOrder_SettlesFills() {
+        CreateOrderRequest request = new CreateOrderRequest(
+                1L, "AAPL", Side.BUY, new BigDecimal("10"), new BigDecimal("150")
+        );
+
+        Order savedOrder = Order.builder()
+                .id(2L)
+                .customer(testCustomer)
+                .assetName("AAPL")
+                .orderSide(Side.BUY)
+                .size(new BigDecimal("10"))
+                .price(new BigDecimal("150"))
+                .status(Status.PENDING)
+                .build();
+        List<Fill> fills = List.of(new Fill(2L, 1L, new BigDecimal("140"), new BigDecimal("10")));
+
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+        when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
+        when(matchingEngine.submit(savedOrder)).thenReturn(fills);
+        when(matchingEngine.counterparties("AAPL", Side.BUY, new BigDecimal("150"), new BigDecimal("10")))
+                .thenReturn(Set.of(7L));
+
+        orderService.createOrder(request);
+
+        InOrder inOrder = inOrder(assetService, settlementService);
+        inOrder.verify(assetService).lockBalances(Set.of(1L, 7L));
+        inOrder.verify(assetService).reserve(testCustomer, "TRY", Amount.of(new BigDecimal("1500")));
+        inOrder.verify(settlementService).settle(fills);
     }
 
     @Test
@@ -102,12 +148,13 @@ class OrderServiceTest {
                 1L, "AAPL", Side.BUY, new BigDecimal("100"), new BigDecimal("150")
         );
 
-        tryAsset.setUsableSize(new BigDecimal("1000"));
-
         when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
-        when(assetService.getOrCreateAsset(testCustomer, "TRY")).thenReturn(tryAsset);
+        doThrow(new InsufficientBalanceException("Insufficient TRY balance"))
+                .when(assetService).reserve(testCustomer, "TRY", Amount.of(new BigDecimal("15000")));
 
         assertThrows(InsufficientBalanceException.class, () -> orderService.createOrder(request));
+        verify(orderRepository, never()).save(any(Order.class));
+        assertEquals(1, rejections("insufficient_balance"));
     }
 
     @Test
@@ -128,14 +175,13 @@ class OrderServiceTest {
                 .build();
 
         when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
-        when(assetService.getOrCreateAsset(testCustomer, "AAPL")).thenReturn(stockAsset);
         when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
 
         OrderResponse response = orderService.createOrder(request);
 
         assertNotNull(response);
         assertEquals(Side.SELL, response.getOrderSide());
-        verify(assetService).updateAssetBalance(stockAsset, BigDecimal.ZERO, new BigDecimal("-10"));
+        verify(assetService).reserve(testCustomer, "AAPL", Amount.of(new BigDecimal("10")));
     }
 
     @Test
@@ -152,11 +198,11 @@ class OrderServiceTest {
 
         when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
         when(orderRepository.findByIdAndCustomer(1L, testCustomer)).thenReturn(Optional.of(pendingOrder));
-        when(assetService.getOrCreateAsset(testCustomer, "TRY")).thenReturn(tryAsset);
 
         orderService.deleteOrder(1L, 1L);
 
-        verify(assetService).updateAssetBalance(tryAsset, BigDecimal.ZERO, new BigDecimal("1500"));
+        verify(assetService).release(testCustomer, "TRY", Amount.of(new BigDecimal("1500")));
+        verify(matchingEngine).remove(pendingOrder);
         verify(orderRepository).save(pendingOrder);
         assertEquals(Status.CANCELED, pendingOrder.getStatus());
     }
@@ -182,4 +228,115 @@ class OrderServiceTest {
 
         assertThrows(ResourceNotFoundException.class, () -> orderService.deleteOrder(1L, 1L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteOrder_Archived_InvalidStatus() {
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+        when(orderRepository.findByIdAndCustomer(1L, testCustomer)).thenReturn(Optional.empty());
+        when(orderArchiveRepository.existsByIdAndCustomerId(1L, 1L)).thenReturn(true);
+
+        assertThrows(InvalidOrderStatusException.class, () -> orderService.deleteOrder(1L, 1L));
+        assertEquals(1, rejections("invalid_order_status"));
+    }
+
+    @Test
+    void listOrders_MergesArchivedInCreationOrder() {
+        LocalDateTime startDate = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime endDate = LocalDateTime.of(2024, 12, 31, 0, 0);
+        OrderResponse pending = orderResponse(5L, Status.PENDING, LocalDateTime.of(2024, 1, 10, 9, 0));
+        OrderResponse matched = orderResponse(7L, Status.MATCHED, LocalDateTime.of(2024, 2, 10, 9, 0));
+        OrderResponse canceled = orderResponse(8L, Status.CANCELED, LocalDateTime.of(2024, 3, 10, 9, 0));
+
+        when(orderRepository.findResponsesByCustomerIdAndDateRangeAndStatus(1L, startDate, endDate, null))
+                .thenReturn(List.of(pending));
+        when(orderArchiver.mayContain(startDate, null)).thenReturn(true);
+        when(orderArchiveRepository.findResponses(1L, startDate, endDate, null)).thenReturn(List.of(matched, canceled));
+
+        List<OrderResponse> orders = orderService.listOrders(1L, startDate, endDate, null);
+
+        assertEquals(List.of(5L, 7L, 8L), orders.stream().map(OrderResponse::getId).toList());
+    }
+
+    @Test
+    void matchOrders_ReportsPerOrderResults() {
+        Order pendingOrder = Order.builder()
+                .id(1L)
+                .customer(testCustomer)
+                .assetName("AAPL")
+                .orderSide(Side.BUY)
+                .size(new BigDecimal("10"))
+                .price(new BigDecimal("150"))
+                .status(Status.PENDING)
+                .build();
+        Order canceledOrder = Order.builder()
+                .id(2L)
+                .customer(testCustomer)
+                .assetName("AAPL")
+                .orderSide(Side.SELL)
+                .size(new BigDecimal("5"))
+                .price(new BigDecimal("150"))
+                .status(Status.CANCELED)
+                .build();
+
+        when(orderRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(pendingOrder, canceledOrder));
+
+        List<MatchOrderResult> results = orderService.matchOrders(List.of(1L, 2L, 3L));
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isMatched());
+        assertFalse(results.get(1).isMatched());
+        assertFalse(results.get(2).isMatched());
+        assertEquals(Status.MATCHED, pendingOrder.getStatus());
+        assertEquals(new BigDecimal("10"), pendingOrder.getFilledSize());
+        assertEquals(Status.CANCELED, canceledOrder.getStatus());
+        verify(matchingEngine).remove(pendingOrder);
+        verify(assetService).applyChangesInBatch(any());
+    }
+
+    @Test
+    void createOrderBatch_RejectsOnlyOrdersThatDoNotFit() {
+        List<CreateOrderRequest> requests = List.of(
+                new CreateOrderRequest(1L, "AAPL", Side.BUY, new BigDecimal("10"), new BigDecimal("150")),
+                new CreateOrderRequest(1L, "AAPL", Side.BUY, new BigDecimal("20"), new BigDecimal("150")),
+                new CreateOrderRequest(9L, "AAPL", Side.BUY, new BigDecimal("1"), new BigDecimal("150"))
+        );
+
+        when(customerRepository.findAllById(any())).thenReturn(List.of(testCustomer));
+        doThrow(new InsufficientBalanceException("Insufficient TRY balance"))
+                .when(assetService).reserve(testCustomer, "TRY", Amount.of(new BigDecimal("4500")));
+        doThrow(new InsufficientBalanceException("Insufficient TRY balance"))
+                .when(assetService).reserve(testCustomer, "TRY", Amount.of(new BigDecimal("3000")));
+
+        List<BatchOrderResult> results = orderService.createOrderBatch(requests);
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isCreated());
+        assertEquals(new BigDecimal("10"), results.get(0).getOrder().getSize());
+        assertFalse(results.get(1).isCreated());
+        assertEquals("Insufficient TRY balance", results.get(1).getMessage());
+        assertFalse(results.get(2).isCreated());
+        assertEquals("Customer not found", results.get(2).getMessage());
+        verify(assetService).reserve(testCustomer, "TRY", Amount.of(new BigDecimal("1500")));
+        verify(orderRepository).saveAll(argThat(orders -> orders instanceof List<?> saved && saved.size() == 1));
+        assertEquals(1, rejections("insufficient_balance"));
+        assertEquals(1, rejections("customer_not_found"));
+    }
+
+    private double rejections(String reason) {
+        return meterRegistry.counter("brokerage.orders.rejected", "reason", reason).count();
+    }
+
+    private OrderResponse orderResponse(Long id, Status status, LocalDateTime createDate) {
+        return OrderResponse.builder()
+                .id(id)
+                .customerId(1L)
+                .assetName("AAPL")
+                .orderSide(Side.BUY)
+                .size(new BigDecimal("10"))
+                .price(new BigDecimal("150"))
+                .filledSize(BigDecimal.ZERO)
+                .status(status)
+                .createDate(createDate)
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.brokerage.service;
+
+import com.brokerage.entity.Customer;
+import com.brokerage.entity.Order;
+import com.brokerage.entity.Side;
+import com.brokerage.entity.Status;
+import com.brokerage.matching.Fill;
+import com.brokerage.money.Amount;
+import com.brokerage.notification.CustomerEventPublisher;
+import com.brokerage.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SettlementServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private AssetService assetService;
+
+    @Mock
+    private CustomerEventPublisher customerEventPublisher;
+
+    @Mock
+    private MeterRegistry meterRegistry;
+
+    @InjectMocks
+    private SettlementService settlementService;
+
+    @Test
+    void settle_PartialFills_ReleaseExactlyTheReservation() {
+        Customer buyer = customer(1L);
+        Customer seller = customer(2L);
+        Order buyOrder = order(1L, buyer, Side.BUY, "3");
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(buyOrder));
+        when(orderRepository.findById(2L)).thenReturn(Optional.of(order(2L, seller, Side.SELL, "1.5")));
+        when(orderRepository.findById(3L)).thenReturn(Optional.of(order(3L, seller, Side.SELL, "1.5")));
+
+        // 3 x 0.33 reserved 0.99, while each 1.5 x 0.33 fill rounds up to 0.50
+        settlementService.settle(List.of(
+                new Fill(1L, 2L, new BigDecimal("0.33"), new BigDecimal("1.5")),
+                new Fill(1L, 3L, new BigDecimal("0.33"), new BigDecimal("1.5"))));
+
+        ArgumentCaptor<BalanceChangeSet> changeSet = ArgumentCaptor.forClass(BalanceChangeSet.class);
+        verify(assetService).applyChanges(changeSet.capture());
+        BalanceChangeSet.Change buyerCash = changeSet.getValue().getChanges().stream()
+                .filter(change -> change.getCustomer() == buyer && change.getAssetName().equals("TRY"))
+                .findFirst()
+                .orElseThrow();
+        // Paid 1.00 from the 0.99 reserved, so only the missing 0.01 comes out of the usable balance
+        assertEquals(Amount.of(new BigDecimal("-1.00")), buyerCash.getSizeChange());
+        assertEquals(Amount.of(new BigDecimal("-0.01")), buyerCash.getUsableSizeChange());
+        assertEquals(Status.MATCHED, buyOrder.getStatus());
+    }
+
+    private Customer customer(Long id) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        return customer;
+    }
+
+    private Order order(Long id, Customer customer, Side side, String size) {
+        return Order.builder()
+                .id(id)
+                .customer(customer)
+                .assetName("AAPL")
+                .orderSide(side)
+                .size(new BigDecimal(size))
+                .price(new BigDecimal("0.33"))
+                .status(Status.PENDING)
+                .build();
+    }
+}